@@ -0,0 +1,65 @@
+package com.example.inventory.benchmark;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatFactory;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.NoBenchmarksException;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Runs the JMH benchmarks and writes every result to one JSON file, so two runs can be diffed.
+ * Single-threaded benchmarks run once; {@link ReservationBenchmark} runs once per thread count.
+ * <p>
+ * Started by {@code mvn -Pjmh verify}; {@code -Djmh.include=<regex>}, {@code -Djmh.threads=1,4,16}
+ * and {@code -Djmh.result=<file>} narrow the run or move the output.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException {
+        String include = System.getProperty("jmh.include", ".*");
+        String resultFile = System.getProperty("jmh.result", "target/jmh-result.json");
+        int[] threadCounts = Arrays.stream(System.getProperty("jmh.threads", "1,4,16").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+
+        String concurrent = ReservationBenchmark.class.getName();
+        List<RunResult> results = new ArrayList<>(run(options()
+                .include(include)
+                .exclude(concurrent)));
+        if (Pattern.compile(include).matcher(concurrent).find()) {
+            for (int threads : threadCounts) {
+                results.addAll(run(options()
+                        .include(concurrent)
+                        .threads(threads)));
+            }
+        }
+        if (results.isEmpty()) {
+            throw new NoBenchmarksException();
+        }
+        ResultFormatFactory.getInstance(ResultFormatType.JSON, resultFile).writeOut(results);
+        System.out.println("JMH results written to " + resultFile);
+    }
+
+    private static ChainedOptionsBuilder options() {
+        return new OptionsBuilder().shouldFailOnError(true);
+    }
+
+    // An include that selects nothing from one of the two runs is not an error
+    private static Collection<RunResult> run(ChainedOptionsBuilder options) throws RunnerException {
+        try {
+            return new Runner(options.build()).run();
+        } catch (NoBenchmarksException e) {
+            return List.of();
+        }
+    }
+}
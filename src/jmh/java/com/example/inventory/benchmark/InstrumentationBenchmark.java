@@ -0,0 +1,100 @@
+package com.example.inventory.benchmark;
+
+import com.example.inventory.cache.RemoteCacheEvictor;
+import com.example.inventory.cache.TwoLevelCache;
+import com.example.inventory.config.ReservationProperties;
+import com.example.inventory.service.InventoryMetrics;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cost the hot-path meters add per call, recorded into a Prometheus registry with the latency
+ * histograms application.yml enables. Each instrumented benchmark has an uninstrumented twin;
+ * the difference is the overhead, to be read against the milliseconds a reservation takes in
+ * {@link ReservationBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstrumentationBenchmark {
+
+    private static final Long KEY = 1L;
+
+    private InventoryMetrics inventoryMetrics;
+    private Supplier<Optional<String>> lockQuery;
+    private TwoLevelCache instrumentedCache;
+    private TwoLevelCache plainCache;
+
+    @Setup
+    public void setUp() {
+        PrometheusMeterRegistry registry = new PrometheusMeterRegistry(PrometheusConfig.DEFAULT);
+        registry.config().meterFilter(new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                return DistributionStatisticConfig.builder().percentilesHistogram(true).build().merge(config);
+            }
+        });
+        inventoryMetrics = new InventoryMetrics(registry);
+        Optional<String> row = Optional.of("item");
+        lockQuery = () -> row;
+        instrumentedCache = cache(registry);
+        plainCache = cache(null);
+    }
+
+    @Benchmark
+    public Optional<String> lockQueryPlain() {
+        return lockQuery.get();
+    }
+
+    @Benchmark
+    public Optional<String> lockQueryTimed() {
+        return inventoryMetrics.timeLockWait(InventoryMetrics.LockOperation.RESERVE, lockQuery);
+    }
+
+    @Benchmark
+    public long reservationOutcomeRecorded() {
+        long started = System.nanoTime();
+        inventoryMetrics.recordCreate(ReservationProperties.Mode.LOCKED, InventoryMetrics.Outcome.SUCCESS,
+                System.nanoTime() - started);
+        return started;
+    }
+
+    @Benchmark
+    public Object cacheLocalHitPlain() {
+        return plainCache.get(KEY, () -> "loaded");
+    }
+
+    @Benchmark
+    public Object cacheLocalHitCounted() {
+        return instrumentedCache.get(KEY, () -> "loaded");
+    }
+
+    private static TwoLevelCache cache(PrometheusMeterRegistry registry) {
+        TwoLevelCache cache = new TwoLevelCache("items", Caffeine.newBuilder().maximumSize(10_000).build(),
+                new ConcurrentMapCache("items"), (name, key) -> { }, null, null, RemoteCacheEvictor.PER_KEY, registry);
+        cache.put(KEY, "item");
+        return cache;
+    }
+}
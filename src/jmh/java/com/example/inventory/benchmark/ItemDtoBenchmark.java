@@ -0,0 +1,83 @@
+package com.example.inventory.benchmark;
+
+import com.example.inventory.dto.ItemDto;
+import com.example.inventory.entity.Item;
+import com.example.inventory.service.ItemService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building an item response: {@link ItemService#mapToDto} over a page of entities, and Jackson
+ * serialization of the resulting list with the object mapper Spring MVC would configure.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemDtoBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int items;
+
+    private List<Item> entities;
+    private List<ItemDto> dtos;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        entities = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            entities.add(Item.builder()
+                    .id((long) i)
+                    .name("Wireless Headphones " + i)
+                    .description("Over-ear, noise cancelling, 30 hour battery")
+                    .sku("SKU-" + i)
+                    .price(new BigDecimal("149.99"))
+                    .availableQuantity(100 + i)
+                    .reservedQuantity(i % 7)
+                    .category("Audio")
+                    .brand("Sony")
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .version(1L)
+                    .build());
+        }
+        dtos = mapToDtos();
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public List<ItemDto> mapToDtos() {
+        List<ItemDto> mapped = new ArrayList<>(entities.size());
+        for (Item item : entities) {
+            mapped.add(ItemService.mapToDto(item));
+        }
+        return mapped;
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+}
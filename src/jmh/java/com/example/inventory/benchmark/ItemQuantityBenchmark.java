@@ -0,0 +1,55 @@
+package com.example.inventory.benchmark;
+
+import com.example.inventory.entity.Item;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Item#reserveQuantity} and {@link Item#cancelReservation}, the in-memory stock arithmetic
+ * behind every locked reservation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ItemQuantityBenchmark {
+
+    private Item item;
+
+    @Setup
+    public void setUp() {
+        item = Item.builder()
+                .id(1L)
+                .name("Benchmark item")
+                .sku("BENCH-1")
+                .price(new BigDecimal("9.99"))
+                .availableQuantity(1_000)
+                .build();
+    }
+
+    // Paired so stock stays level across iterations
+    @Benchmark
+    public int reserveAndCancel() {
+        item.reserveQuantity(3);
+        item.cancelReservation(3);
+        return item.getAvailableQuantity();
+    }
+
+    @Benchmark
+    public boolean hasAvailableQuantity() {
+        return item.hasAvailableQuantity(3);
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.inventory.benchmark;
+
+import com.example.inventory.InventoryApplication;
+import com.example.inventory.config.ReservationProperties;
+import com.example.inventory.dto.ReservationRequest;
+import com.example.inventory.entity.Reservation;
+import com.example.inventory.service.ReservationService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ReservationService#createReservation} against the embedded H2 test database, per
+ * {@link ReservationProperties.Mode}, on one hot item or spread over many. The thread count is
+ * set by {@link BenchmarkRunner}, which runs this benchmark once per configured count.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+// Hibernate and the JDBC path take several seconds of calls to reach steady state
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReservationBenchmark {
+
+    // Well clear of ids handed out by the item sequence
+    private static final long FIRST_ID = 1_000_000_000L;
+    private static final int STOCK = 1_000_000_000;
+
+    @Param({"LOCKED", "CONDITIONAL_UPDATE", "LEDGER", "COALESCED"})
+    public ReservationProperties.Mode mode;
+
+    @Param({"1", "1000"})
+    public int items;
+
+    private ConfigurableApplicationContext context;
+    private ReservationService reservationService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(InventoryApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                // Arguments rather than default properties, which application.yml would override
+                .run("--app.reservation.mode=" + mode,
+                        "--logging.level.com.example.inventory=WARN",
+                        "--logging.level.org.hibernate.SQL=INFO",
+                        "--logging.level.org.springframework.data.redis=WARN",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO");
+        reservationService = context.getBean(ReservationService.class);
+        insertItems(context.getBean(JdbcTemplate.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Reservation createReservation() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return reservationService.createReservation(ReservationRequest.builder()
+                .itemId(FIRST_ID + random.nextInt(items))
+                .customerId("bench-" + random.nextInt(10_000))
+                .quantity(1)
+                .expirationMinutes(30)
+                .build());
+    }
+
+    private void insertItems(JdbcTemplate jdbcTemplate) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            rows.add(new Object[]{FIRST_ID + i, "Benchmark item " + i, "BENCH-" + i, STOCK, now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, sku, price, available_quantity, reserved_quantity, "
+                + "is_active, created_at, updated_at, version) VALUES (?, ?, ?, 9.99, ?, 0, true, ?, ?, 0)", rows);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.inventory.benchmark;
+
+import com.example.inventory.config.LatencyProperties;
+import com.example.inventory.dto.LatencyReport;
+import com.example.inventory.monitoring.RouteLatencyRecorder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the per-route latency filter costs each request: recording into a route's histogram from
+ * one thread and from several threads on the same route, and building the endpoint's report over
+ * a full window.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RouteLatencyBenchmark {
+
+    private static final String[] PATTERNS = {"/api/items/{id}", "/api/items/sku/{sku}", "/api/items/search",
+            "/api/reservations", "/api/reservations/{id}"};
+
+    private RouteLatencyRecorder recorder;
+
+    @Setup
+    public void setUp() {
+        recorder = new RouteLatencyRecorder(new LatencyProperties(), new SimpleMeterRegistry());
+        for (int slice = 0; slice < 6; slice++) {
+            for (String pattern : PATTERNS) {
+                for (int i = 0; i < 10_000; i++) {
+                    recorder.record("GET", pattern, latency());
+                }
+            }
+            recorder.rotate();
+        }
+    }
+
+    @Benchmark
+    public void record() {
+        recorder.record("GET", "/api/items/{id}", 2_500_000);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void recordContended() {
+        recorder.record("GET", "/api/items/{id}", 2_500_000);
+    }
+
+    @Benchmark
+    public LatencyReport report() {
+        return recorder.report();
+    }
+
+    private static long latency() {
+        return ThreadLocalRandom.current().nextLong(100_000, 200_000_000);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.inventory.cache;
+
+import java.util.Collection;
+
+/**
+ * Tells other nodes that an entry of a {@link TwoLevelCache} changed so they drop their local copy.
+ */
+@FunctionalInterface
+public interface CacheInvalidationPublisher {
+
+    /**
+     * @param key the changed key, or {@code null} when the whole cache was cleared
+     */
+    void publish(String cacheName, Object key);
+
+    /**
+     * Publishes several changed keys; implementations may send them as one message.
+     */
+    default void publishAll(String cacheName, Collection<?> keys) {
+        keys.forEach(key -> publish(cacheName, key));
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.inventory.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.noop.NoopCounter;
+
+/**
+ * Counters for one {@link TwoLevelCache}, registered up front so counting a read is one adder
+ * increment:
+ * <ul>
+ *   <li>{@code inventory.cache.gets} by {@code result} and the {@code level} that answered:
+ *       hits from {@code local}, {@code stale} or {@code remote}; misses that joined another
+ *       reader's load ({@code shared}), ran the loader themselves ({@code loader}) or, for plain
+ *       lookups without a loader, found nothing in L2 either ({@code remote}),</li>
+ *   <li>{@code inventory.cache.evictions} by {@code source}: this node's writes ({@code local})
+ *       or invalidations received from other nodes ({@code remote}).</li>
+ * </ul>
+ */
+final class CacheMetrics {
+
+    static final CacheMetrics NONE = new CacheMetrics();
+
+    final Counter localHits;
+    final Counter staleHits;
+    final Counter remoteHits;
+    final Counter sharedMisses;
+    final Counter loaderMisses;
+    final Counter remoteMisses;
+    final Counter localEvictions;
+    final Counter remoteEvictions;
+
+    CacheMetrics(MeterRegistry registry, String cacheName) {
+        Tags tags = Tags.of("cache", cacheName);
+        localHits = get(registry, tags, "hit", "local");
+        staleHits = get(registry, tags, "hit", "stale");
+        remoteHits = get(registry, tags, "hit", "remote");
+        sharedMisses = get(registry, tags, "miss", "shared");
+        loaderMisses = get(registry, tags, "miss", "loader");
+        remoteMisses = get(registry, tags, "miss", "remote");
+        localEvictions = eviction(registry, tags, "local");
+        remoteEvictions = eviction(registry, tags, "remote");
+    }
+
+    private CacheMetrics() {
+        Counter noop = new NoopCounter(new Meter.Id("inventory.cache", Tags.empty(), null, null, Meter.Type.COUNTER));
+        localHits = noop;
+        staleHits = noop;
+        remoteHits = noop;
+        sharedMisses = noop;
+        loaderMisses = noop;
+        remoteMisses = noop;
+        localEvictions = noop;
+        remoteEvictions = noop;
+    }
+
+    private static Counter get(MeterRegistry registry, Tags tags, String result, String level) {
+        return Counter.builder("inventory.cache.gets")
+                .description("Cache reads by result and by the level that answered")
+                .tags(tags)
+                .tag("result", result)
+                .tag("level", level)
+                .register(registry);
+    }
+
+    private static Counter eviction(MeterRegistry registry, Tags tags, String source) {
+        return Counter.builder("inventory.cache.evictions")
+                .description("Entries evicted from the near cache")
+                .tags(tags)
+                .tag("source", source)
+                .register(registry);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.inventory.cache;
+
+import com.example.inventory.dto.ItemDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Item cache reachable by id or SKU.
+ * <p>
+ * Each item is stored once, under its id. A SKU maps to the id through a small alias entry, and
+ * since an item's SKU never changes, evicting the id entry is enough to invalidate both lookups.
+ * Items are only ever loaded by id, through the cache's guarded load, so a lookup by SKU cannot
+ * cache a row read before a concurrent eviction.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ItemCache {
+
+    static final String CACHE_NAME = "items";
+    static final String SKU_ALIAS_PREFIX = "sku:";
+
+    private final CacheManager cacheManager;
+
+    public Optional<ItemDto> get(Long id, Supplier<Optional<ItemDto>> loader) {
+        return Optional.ofNullable(cache().get(id, () -> loader.get().orElse(null)));
+    }
+
+    /**
+     * Resolves the SKU to an id, through its alias or {@code idResolver} on an alias miss, and
+     * reads the item by id. An alias pointing at an item that no longer has this SKU (the SKU was
+     * reused after a delete) is dropped and resolved again.
+     */
+    public Optional<ItemDto> getBySku(String sku, Function<Long, Optional<ItemDto>> idLoader,
+                                      Supplier<Optional<Long>> idResolver) {
+        Cache cache = cache();
+        String aliasKey = skuKey(sku);
+        Cache.ValueWrapper alias = cache.get(aliasKey);
+        // Ids may come back from Redis as any Number
+        if (alias != null && alias.get() instanceof Number cachedId) {
+            Optional<ItemDto> item = get(cachedId.longValue(), () -> idLoader.apply(cachedId.longValue()));
+            if (item.filter(dto -> sku.equals(dto.getSku())).isPresent()) {
+                return item;
+            }
+            cache.evict(aliasKey);
+        }
+        Optional<Long> id = idResolver.get();
+        id.ifPresent(itemId -> {
+            // Only a changed mapping has to be announced to other nodes
+            Cache.ValueWrapper existing = cache.putIfAbsent(aliasKey, itemId);
+            if (existing != null && !(existing.get() instanceof Number n && n.longValue() == itemId)) {
+                cache.put(aliasKey, itemId);
+            }
+        });
+        return id.flatMap(itemId -> get(itemId, () -> idLoader.apply(itemId)));
+    }
+
+    public void evict(Long id) {
+        log.debug("Evicting item cache for ID: {}", id);
+        cache().evict(id);
+    }
+
+    /**
+     * Evicts many items in one batch when the cache supports it.
+     */
+    public void evictAll(Collection<Long> ids) {
+        log.debug("Evicting item cache for {} IDs", ids.size());
+        Cache cache = cache();
+        if (cache instanceof TwoLevelCache twoLevelCache) {
+            twoLevelCache.evictAll(ids);
+        } else {
+            ids.forEach(cache::evict);
+        }
+    }
+
+    public void clear() {
+        log.debug("Evicting all item cache");
+        cache().clear();
+    }
+
+    private Cache cache() {
+        return cacheManager.getCache(CACHE_NAME);
+    }
+
+    private static String skuKey(String sku) {
+        return SKU_ALIAS_PREFIX + sku;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.inventory.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.stream.Collectors;
+import java.util.UUID;
+
+/**
+ * Broadcasts near-cache invalidations over Redis pub/sub and applies the ones sent by other nodes.
+ * <p>
+ * Messages have the form {@code origin|cache|key}, with {@code *} as the key for a full clear.
+ * A batch of keys travels in one message as newline-separated keys.
+ * A node ignores its own messages since it already updated its local cache.
+ */
+@Slf4j
+public class RedisCacheInvalidationBus implements CacheInvalidationPublisher, MessageListener {
+
+    static final String CLEAR_ALL = "*";
+    static final String KEY_SEPARATOR = "\n";
+
+    private final String origin = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final String channel;
+    private TwoLevelCacheManager cacheManager;
+
+    public RedisCacheInvalidationBus(StringRedisTemplate redisTemplate, String channel) {
+        this.redisTemplate = redisTemplate;
+        this.channel = channel;
+    }
+
+    public void setCacheManager(TwoLevelCacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public void publish(String cacheName, Object key) {
+        send(origin + "|" + cacheName + "|" + (key != null ? key : CLEAR_ALL));
+    }
+
+    @Override
+    public void publishAll(String cacheName, Collection<?> keys) {
+        if (!keys.isEmpty()) {
+            send(origin + "|" + cacheName + "|"
+                    + keys.stream().map(String::valueOf).collect(Collectors.joining(KEY_SEPARATOR)));
+        }
+    }
+
+    private void send(String message) {
+        try {
+            redisTemplate.convertAndSend(channel, message);
+        } catch (RuntimeException e) {
+            // Other nodes fall back to the local expire-after-write bound
+            log.warn("Failed to publish cache invalidation {}: {}", message, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length != 3 || origin.equals(parts[0]) || cacheManager == null) {
+            return;
+        }
+        Cache cache = cacheManager.getCache(parts[1]);
+        if (cache instanceof TwoLevelCache twoLevelCache) {
+            if (CLEAR_ALL.equals(parts[2])) {
+                log.debug("Invalidating local cache {}", parts[1]);
+                twoLevelCache.invalidateLocal(null);
+                return;
+            }
+            for (String key : parts[2].split(KEY_SEPARATOR)) {
+                log.debug("Invalidating local cache {} key {}", parts[1], key);
+                twoLevelCache.invalidateLocal(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.inventory.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Evicts many keys of a {@link RedisCache} with a single multi-key {@code DEL} instead of one
+ * round trip per key. Keys are built the way {@link RedisCache} builds them, which assumes the
+ * default string key serializer.
+ */
+public class RedisRemoteCacheEvictor implements RemoteCacheEvictor {
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisRemoteCacheEvictor(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public void evictAll(Cache remote, Collection<?> keys) {
+        if (!(remote instanceof RedisCache redisCache)) {
+            PER_KEY.evictAll(remote, keys);
+            return;
+        }
+        RedisCacheConfiguration configuration = redisCache.getCacheConfiguration();
+        String prefix = configuration.usePrefix() ? configuration.getKeyPrefixFor(redisCache.getName()) : "";
+        List<String> redisKeys = keys.stream()
+                .map(key -> prefix + configuration.getConversionService().convert(key, String.class))
+                .toList();
+        redisTemplate.delete(redisKeys);
+    }
+}
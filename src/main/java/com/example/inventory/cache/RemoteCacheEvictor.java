@@ -0,0 +1,17 @@
+package com.example.inventory.cache;
+
+import org.springframework.cache.Cache;
+
+import java.util.Collection;
+
+/**
+ * Removes several keys from the shared level of a {@link TwoLevelCache}.
+ */
+@FunctionalInterface
+public interface RemoteCacheEvictor {
+
+    /** Evicts the keys one by one; works for any remote cache. */
+    RemoteCacheEvictor PER_KEY = (remote, keys) -> keys.forEach(remote::evict);
+
+    void evictAll(Cache remote, Collection<?> keys);
+}
@@ -0,0 +1,269 @@
+package com.example.inventory.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+/**
+ * A bounded in-process cache (L1) in front of a shared cache such as Redis (L2).
+ * <p>
+ * Reads are served from L1 when possible and fall back to L2, populating L1 on the way.
+ * Writes and evictions go to both levels and are published so other nodes drop their L1 copy.
+ * <p>
+ * Loads through {@link #get(Object, Callable)} are single-flight per key: concurrent misses share
+ * one future, so an eviction of a hot key costs one L2 read and at most one load. When a stale
+ * cache is configured, evicted values are kept there briefly and served while one background
+ * load refreshes the entry (stale-while-revalidate).
+ * <p>
+ * Given a {@link MeterRegistry}, reads and evictions are counted per level (see {@link CacheMetrics}).
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    private final String name;
+    private final Cache<Object, Object> local;
+    private final org.springframework.cache.Cache remote;
+    private final CacheInvalidationPublisher publisher;
+    private final Cache<Object, Object> stale;
+    private final Executor refreshExecutor;
+    private final RemoteCacheEvictor remoteEvictor;
+    private final CacheMetrics metrics;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public TwoLevelCache(String name, Cache<Object, Object> local, org.springframework.cache.Cache remote,
+                         CacheInvalidationPublisher publisher) {
+        this(name, local, remote, publisher, null, null);
+    }
+
+    public TwoLevelCache(String name, Cache<Object, Object> local, org.springframework.cache.Cache remote,
+                         CacheInvalidationPublisher publisher, Cache<Object, Object> stale,
+                         Executor refreshExecutor) {
+        this(name, local, remote, publisher, stale, refreshExecutor, RemoteCacheEvictor.PER_KEY);
+    }
+
+    public TwoLevelCache(String name, Cache<Object, Object> local, org.springframework.cache.Cache remote,
+                         CacheInvalidationPublisher publisher, Cache<Object, Object> stale,
+                         Executor refreshExecutor, RemoteCacheEvictor remoteEvictor) {
+        this(name, local, remote, publisher, stale, refreshExecutor, remoteEvictor, null);
+    }
+
+    public TwoLevelCache(String name, Cache<Object, Object> local, org.springframework.cache.Cache remote,
+                         CacheInvalidationPublisher publisher, Cache<Object, Object> stale,
+                         Executor refreshExecutor, RemoteCacheEvictor remoteEvictor, MeterRegistry meterRegistry) {
+        super(true);
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.publisher = publisher;
+        this.stale = stale;
+        this.refreshExecutor = refreshExecutor;
+        this.remoteEvictor = remoteEvictor;
+        this.metrics = meterRegistry != null ? new CacheMetrics(meterRegistry, name) : CacheMetrics.NONE;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return local;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = local.getIfPresent(key);
+        if (value != null) {
+            metrics.localHits.increment();
+            return value;
+        }
+        ValueWrapper remoteValue = remote.get(key);
+        if (remoteValue == null) {
+            metrics.remoteMisses.increment();
+            return null;
+        }
+        metrics.remoteHits.increment();
+        value = toStoreValue(remoteValue.get());
+        local.put(key, value);
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = local.getIfPresent(key);
+        if (value != null) {
+            metrics.localHits.increment();
+            return (T) fromStoreValue(value);
+        }
+        if (stale != null) {
+            Object staleValue = stale.getIfPresent(key);
+            if (staleValue != null) {
+                metrics.staleHits.increment();
+                if (!inFlight.containsKey(key)) {
+                    refreshExecutor.execute(() -> refresh(key, valueLoader));
+                }
+                return (T) fromStoreValue(staleValue);
+            }
+        }
+        try {
+            return (T) fromStoreValue(load(key, valueLoader, true).join());
+        } catch (CompletionException e) {
+            throw new ValueRetrievalException(key, valueLoader, e.getCause());
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        local.put(key, toStoreValue(value));
+        publisher.publish(name, key);
+    }
+
+    /**
+     * Writes both levels unless L2 already holds the key, without an invalidation message: no
+     * node can hold a different L1 copy of a key that L2 did not have. Returns the existing value.
+     */
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = remote.putIfAbsent(key, value);
+        local.put(key, toStoreValue(existing != null ? existing.get() : value));
+        return existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        metrics.localEvictions.increment();
+        remote.evict(key);
+        invalidate(key);
+        publisher.publish(name, key);
+    }
+
+    /**
+     * Evicts several keys at once: one batched L2 removal and one invalidation message for all of
+     * them, instead of a round trip and a message per key.
+     */
+    public void evictAll(Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        metrics.localEvictions.increment(keys.size());
+        remoteEvictor.evictAll(remote, keys);
+        keys.forEach(this::invalidate);
+        publisher.publishAll(name, keys);
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        invalidateAll();
+        publisher.publish(name, null);
+    }
+
+    /**
+     * Drops an L1 entry after another node changed it. Keys arrive as strings, so numeric keys
+     * are also dropped in their {@code Long} form.
+     */
+    public void invalidateLocal(String key) {
+        metrics.remoteEvictions.increment();
+        if (key == null) {
+            invalidateAll();
+            return;
+        }
+        invalidate(key);
+        try {
+            invalidate(Long.valueOf(key));
+        } catch (NumberFormatException ignored) {
+            // not an id key
+        }
+    }
+
+    int inFlightLoads() {
+        return inFlight.size();
+    }
+
+    /**
+     * Joins the load already running for the key or starts one. A load only populates L1 if the
+     * key was not invalidated while it ran, so a value read before a write does not outlive it.
+     * Background refreshes pass {@code read = false} so they are not counted as cache reads.
+     */
+    private CompletableFuture<Object> load(Object key, Callable<?> valueLoader, boolean read) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            if (read) {
+                metrics.sharedMisses.increment();
+            }
+            return running;
+        }
+        try {
+            Object value;
+            boolean loaded = false;
+            ValueWrapper remoteValue = remote.get(key);
+            if (remoteValue != null) {
+                if (read) {
+                    metrics.remoteHits.increment();
+                }
+                value = toStoreValue(remoteValue.get());
+            } else {
+                if (read) {
+                    metrics.loaderMisses.increment();
+                }
+                Object loadedValue = valueLoader.call();
+                remote.put(key, loadedValue);
+                value = toStoreValue(loadedValue);
+                loaded = true;
+            }
+            if (inFlight.remove(key, future)) {
+                local.put(key, value);
+                if (stale != null) {
+                    stale.invalidate(key);
+                }
+            } else if (loaded) {
+                // Invalidated while loading: take back what this load wrote to L2
+                remote.evict(key);
+            }
+            future.complete(value);
+        } catch (Throwable e) {
+            inFlight.remove(key, future);
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private void refresh(Object key, Callable<?> valueLoader) {
+        load(key, valueLoader, false).exceptionally(e -> {
+            log.warn("Failed to refresh cache {} key {}: {}", name, key, e.getMessage());
+            return null;
+        });
+    }
+
+    private void invalidate(Object key) {
+        if (stale != null) {
+            Object value = local.getIfPresent(key);
+            if (value != null) {
+                stale.put(key, value);
+            }
+        }
+        local.invalidate(key);
+        inFlight.remove(key);
+    }
+
+    private void invalidateAll() {
+        if (stale != null) {
+            stale.putAll(local.asMap());
+        }
+        local.invalidateAll();
+        inFlight.clear();
+    }
+}
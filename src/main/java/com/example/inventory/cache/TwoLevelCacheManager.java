@@ -0,0 +1,109 @@
+package com.example.inventory.cache;
+
+import com.example.inventory.config.InventoryCacheProperties;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Wraps every cache of a remote {@link CacheManager} in a {@link TwoLevelCache} with its own
+ * bounded Caffeine near-cache. With stale-while-revalidate enabled, background refreshes run on
+ * a small pool owned by the manager.
+ */
+public class TwoLevelCacheManager implements CacheManager, DisposableBean {
+
+    private final CacheManager remoteCacheManager;
+    private final CacheInvalidationPublisher publisher;
+    private final InventoryCacheProperties.Local localProperties;
+    private final Executor refreshExecutor;
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private RemoteCacheEvictor remoteEvictor = RemoteCacheEvictor.PER_KEY;
+    private MeterRegistry meterRegistry;
+
+    public TwoLevelCacheManager(CacheManager remoteCacheManager, CacheInvalidationPublisher publisher,
+                                InventoryCacheProperties.Local localProperties) {
+        this(remoteCacheManager, publisher, localProperties,
+                localProperties.isStaleWhileRevalidate() ? newRefreshExecutor() : null);
+    }
+
+    TwoLevelCacheManager(CacheManager remoteCacheManager, CacheInvalidationPublisher publisher,
+                         InventoryCacheProperties.Local localProperties, Executor refreshExecutor) {
+        this.remoteCacheManager = remoteCacheManager;
+        this.publisher = publisher;
+        this.localProperties = localProperties;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    /**
+     * Sets how batch evictions reach the remote caches. Applies to caches created afterwards.
+     */
+    public void setRemoteEvictor(RemoteCacheEvictor remoteEvictor) {
+        this.remoteEvictor = remoteEvictor;
+    }
+
+    /**
+     * Sets where caches report hit, miss and eviction counts. Applies to caches created afterwards.
+     */
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void destroy() {
+        if (refreshExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private TwoLevelCache createCache(String name) {
+        Cache remote = remoteCacheManager.getCache(name);
+        if (remote == null) {
+            throw new IllegalStateException("No remote cache named " + name);
+        }
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> stale = null;
+        if (localProperties.isStaleWhileRevalidate()) {
+            stale = Caffeine.newBuilder()
+                    .maximumSize(localProperties.getMaximumSize())
+                    .expireAfterWrite(Duration.ofSeconds(localProperties.getStaleTtlSeconds()))
+                    .build();
+        }
+        return new TwoLevelCache(name, Caffeine.newBuilder()
+                .maximumSize(localProperties.getMaximumSize())
+                .expireAfterWrite(Duration.ofSeconds(localProperties.getExpireAfterWriteSeconds()))
+                .build(), remote, publisher, stale, refreshExecutor, remoteEvictor, meterRegistry);
+    }
+
+    // A dropped refresh only means the next reader after the stale entry expires loads the value itself
+    private static ExecutorService newRefreshExecutor() {
+        AtomicInteger threads = new AtomicInteger();
+        return new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1000), runnable -> {
+            Thread thread = new Thread(runnable, "cache-refresh-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.DiscardPolicy());
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.inventory.config;
+
+import com.example.inventory.cache.RedisCacheInvalidationBus;
+import com.example.inventory.cache.RedisRemoteCacheEvictor;
+import com.example.inventory.cache.TwoLevelCacheManager;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+
+import java.time.Duration;
+
+/**
+ * Two-level caching: a per-node Caffeine near-cache in front of Redis, kept coherent across nodes
+ * through Redis pub/sub. Disabled when {@code spring.cache.type} selects another cache type.
+ */
+@Configuration
+@Slf4j
+@ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis", matchIfMissing = true)
+public class CacheConfig {
+
+    @Bean
+    public RedisCacheManager redisCacheManager(RedisConnectionFactory connectionFactory,
+                                               InventoryCacheProperties cacheProperties) {
+        GenericJackson2JsonRedisSerializer serializer = new GenericJackson2JsonRedisSerializer();
+        serializer.configure(mapper -> mapper.registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+        RedisCacheConfiguration configuration = RedisCacheConfiguration.defaultCacheConfig()
+                .entryTtl(Duration.ofSeconds(cacheProperties.getTtl()))
+                .prefixCacheNameWith(cacheProperties.getInventoryKeyPrefix())
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(serializer));
+        return RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(configuration)
+                .build();
+    }
+
+    @Bean
+    public RedisCacheInvalidationBus cacheInvalidationBus(StringRedisTemplate stringRedisTemplate,
+                                                          InventoryCacheProperties cacheProperties) {
+        return new RedisCacheInvalidationBus(stringRedisTemplate, cacheProperties.getInvalidationChannel());
+    }
+
+    @Bean
+    @Primary
+    public TwoLevelCacheManager cacheManager(RedisCacheManager redisCacheManager,
+                                             RedisCacheInvalidationBus cacheInvalidationBus,
+                                             StringRedisTemplate stringRedisTemplate,
+                                             InventoryCacheProperties cacheProperties,
+                                             MeterRegistry meterRegistry) {
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(redisCacheManager, cacheInvalidationBus,
+                cacheProperties.getLocal());
+        cacheManager.setRemoteEvictor(new RedisRemoteCacheEvictor(stringRedisTemplate));
+        cacheManager.setMeterRegistry(meterRegistry);
+        cacheInvalidationBus.setCacheManager(cacheManager);
+        return cacheManager;
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                            RedisCacheInvalidationBus cacheInvalidationBus,
+                                                                            InventoryCacheProperties cacheProperties) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer() {
+            @Override
+            public void start() {
+                // Keep serving without Redis; the container retries the subscription in the background
+                try {
+                    super.start();
+                } catch (RuntimeException e) {
+                    log.warn("Cache invalidation subscription unavailable, retrying: {}", e.getMessage());
+                }
+            }
+        };
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(cacheInvalidationBus, new ChannelTopic(cacheProperties.getInvalidationChannel()));
+        return container;
+    }
+}
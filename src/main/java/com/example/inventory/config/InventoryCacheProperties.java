@@ -0,0 +1,37 @@
+package com.example.inventory.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.cache")
+public class InventoryCacheProperties {
+
+    /** Time to live of Redis (L2) entries, in seconds. */
+    private long ttl = 300;
+
+    private String inventoryKeyPrefix = "inventory:";
+
+    private String reservationKeyPrefix = "reservation:";
+
+    /** Redis pub/sub channel carrying near-cache invalidations between nodes. */
+    private String invalidationChannel = "inventory:cache-invalidation";
+
+    private final Local local = new Local();
+
+    @Data
+    public static class Local {
+
+        /** Maximum entries per cache in each node's in-process (L1) cache. */
+        private long maximumSize = 10000;
+
+        /** Upper bound on L1 staleness should an invalidation message be lost, in seconds. */
+        private long expireAfterWriteSeconds = 60;
+
+        /** Serve an evicted value while a single background load refreshes it. */
+        private boolean staleWhileRevalidate = false;
+
+        /** How long an evicted value may still be served when stale-while-revalidate is on, in seconds. */
+        private long staleTtlSeconds = 5;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.inventory.config;
+
+import com.example.inventory.monitoring.RouteLatencyFilter;
+import com.example.inventory.monitoring.RouteLatencyRecorder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers the per-route latency filter outermost, so the recorded time covers the other filters
+ * too. Disabled with {@code app.latency.enabled=false}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "app.latency.enabled", havingValue = "true", matchIfMissing = true)
+public class LatencyConfig {
+
+    @Bean
+    public FilterRegistrationBean<RouteLatencyFilter> routeLatencyFilter(RouteLatencyRecorder recorder) {
+        FilterRegistrationBean<RouteLatencyFilter> registration =
+                new FilterRegistrationBean<>(new RouteLatencyFilter(recorder));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
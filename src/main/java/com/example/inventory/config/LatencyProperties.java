@@ -0,0 +1,33 @@
+package com.example.inventory.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.latency")
+public class LatencyProperties {
+
+    /** Whether the servlet filter records per-route latency for the {@code latency} actuator endpoint. */
+    private boolean enabled = true;
+
+    /** How often the current interval is closed and added to the rolling window. */
+    private long sliceIntervalMs = 10000;
+
+    /** Closed intervals kept in the rolling window; the window spans slices x slice interval. */
+    private int slices = 6;
+
+    /** Longest latency the histograms resolve; slower requests are recorded at this value. */
+    private long highestTrackableMs = 60000;
+
+    /** Decimal digits of precision kept by the histograms. */
+    private int significantDigits = 2;
+
+    /** Latency objective applied to routes without their own entry in {@code slo-ms}. */
+    private long defaultSloMs = 500;
+
+    /** Latency objective per route, keyed like the report: {@code "POST /api/reservations"}. */
+    private Map<String, Long> sloMs = new LinkedHashMap<>();
+}
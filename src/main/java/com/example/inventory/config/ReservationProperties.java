@@ -0,0 +1,104 @@
+package com.example.inventory.config;
+
+import jakarta.validation.constraints.AssertTrue;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Data
+@Validated
+@ConfigurationProperties(prefix = "app.reservation")
+public class ReservationProperties {
+
+    /**
+     * Strategy used by {@code ReservationService.createReservation} to admit stock.
+     */
+    private Mode mode = Mode.LOCKED;
+
+    /**
+     * Whether several instances serve reservations against the same database. The expiry sweeper
+     * and timing wheel are safe either way; the ledger is not, so the two cannot be combined.
+     */
+    private boolean multiNode = false;
+
+    private final Ledger ledger = new Ledger();
+
+    private final Coalescing coalescing = new Coalescing();
+
+    private final Expiry expiry = new Expiry();
+
+    // Each node's ledger admits against its own copy of the stock, so two nodes would oversell
+    @AssertTrue(message = "app.reservation.mode=ledger keeps stock counters in one JVM and cannot be used "
+            + "with app.reservation.multi-node=true; use conditional-update or coalesced instead")
+    public boolean isSingleNodeWhenLedger() {
+        return mode != Mode.LEDGER || !multiNode;
+    }
+
+    public enum Mode {
+        /** Read the item with PESSIMISTIC_WRITE, mutate it and save it back. */
+        LOCKED,
+        /** Admit against in-memory counters and write the item row behind. Single node only. */
+        LEDGER,
+        /** Decrement stock with one guarded UPDATE; the affected row count decides success. */
+        CONDITIONAL_UPDATE,
+        /** Batch concurrent requests per item and apply each batch under one row lock. */
+        COALESCED
+    }
+
+    @Data
+    public static class Ledger {
+
+        /** Delay between write-behind flushes of ledger deltas to the items table. */
+        private long flushIntervalMs = 50;
+    }
+
+    @Data
+    public static class Coalescing {
+
+        /** How long the first request for an item waits for others to join its batch. */
+        private long windowMicros = 2000;
+
+        /** A batch is applied as soon as it reaches this size, without waiting for the window. */
+        private int maxBatchSize = 256;
+
+        /** Threads applying batches; batches for different items run in parallel. */
+        private int workers = 4;
+
+        /** How long a caller waits for its batch to commit before the reservation is refused. */
+        private long timeoutMs = 5000;
+    }
+
+    @Data
+    public static class Expiry {
+
+        /** Whether the scheduled sweeper releases expired reservations. */
+        private boolean enabled = true;
+
+        /** Delay between sweeps. */
+        private long sweepIntervalMs = 30000;
+
+        /** Reservations claimed and expired per transaction. */
+        private int chunkSize = 500;
+
+        /** Upper bound on chunks per sweep so one run cannot monopolise the scheduler thread. */
+        private int maxChunksPerSweep = 200;
+
+        private final Wheel wheel = new Wheel();
+
+        @Data
+        public static class Wheel {
+
+            /** Whether reservations are also expired on time by the in-memory timing wheel. */
+            private boolean enabled = true;
+
+            /** Resolution of the wheel; expiry fires at most one tick late. */
+            private long tickMs = 100;
+
+            /** Buckets per wheel level. */
+            private int wheelSize = 512;
+
+            /** ACTIVE reservations read per query when rebuilding the wheel at startup. */
+            private int rebuildPageSize = 1000;
+        }
+    }
+}
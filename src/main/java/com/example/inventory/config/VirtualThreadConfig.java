@@ -0,0 +1,43 @@
+package com.example.inventory.config;
+
+import com.example.inventory.jdbc.ConcurrencyLimitedDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Puts the application's {@link DataSource} behind a {@link ConcurrencyLimitedDataSource} when
+ * {@code app.virtual-threads.db-limiter.enabled} is set.
+ */
+@Configuration
+@Slf4j
+@ConditionalOnProperty(name = "app.virtual-threads.db-limiter.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    // Static so the post-processor is registered without initializing this configuration early
+    @Bean
+    public static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(
+            ObjectProvider<VirtualThreadProperties> properties, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource) {
+                    return bean;
+                }
+                VirtualThreadProperties.DbLimiter limiter = properties.getObject().getDbLimiter();
+                int maxConcurrent = limiter.getMaxConcurrent() > 0 ? limiter.getMaxConcurrent()
+                        : dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : 10;
+                log.info("Limiting data source '{}' to {} concurrent connections", beanName, maxConcurrent);
+                return new ConcurrencyLimitedDataSource(dataSource, maxConcurrent, limiter.getAcquireTimeoutMs(),
+                        meterRegistry.getObject());
+            }
+        };
+    }
+}
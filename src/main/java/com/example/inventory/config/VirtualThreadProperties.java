@@ -0,0 +1,43 @@
+package com.example.inventory.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Guards for serving requests on virtual threads ({@code spring.threads.virtual.enabled}, Java 21+).
+ * application.yml turns both on together with virtual threads.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.virtual-threads")
+public class VirtualThreadProperties {
+
+    private final DbLimiter dbLimiter = new DbLimiter();
+
+    private final Pinning pinning = new Pinning();
+
+    @Data
+    public static class DbLimiter {
+
+        /** Whether connections are handed out behind a fair semaphore. */
+        private boolean enabled = false;
+
+        /** Connections that may be checked out at once; 0 uses the Hikari maximum pool size. */
+        private int maxConcurrent = 0;
+
+        /** How long a caller waits for a permit before the connection request fails. */
+        private long acquireTimeoutMs = 30000;
+    }
+
+    @Data
+    public static class Pinning {
+
+        /** Whether JFR pinned-thread events are counted and logged. */
+        private boolean enabled = false;
+
+        /** Pins shorter than this are ignored. */
+        private long thresholdMs = 20;
+
+        /** Frames logged the first time a pinning stack is seen. */
+        private int stackDepth = 12;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.inventory.controller;
+
+import com.example.inventory.dto.CursorPage;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Answers keyset listings given a cursor this service did not issue with 400 Bad Request.
+ */
+@RestControllerAdvice
+public class CursorExceptionHandler {
+
+    @ExceptionHandler(CursorPage.InvalidCursorException.class)
+    public ResponseEntity<Void> handleInvalidCursor() {
+        return ResponseEntity.badRequest().build();
+    }
+}
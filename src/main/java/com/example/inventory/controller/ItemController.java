@@ -1,20 +1,44 @@
 package com.example.inventory.controller;
 
+import com.example.inventory.dto.AvailabilityRequest;
+import com.example.inventory.dto.AvailabilityResult;
+import com.example.inventory.dto.BulkImportResult;
+import com.example.inventory.dto.BulkSupplyResult;
+import com.example.inventory.dto.CatalogFilter;
+import com.example.inventory.dto.CatalogPage;
 import com.example.inventory.dto.CreateItemRequest;
+import com.example.inventory.dto.CursorPage;
 import com.example.inventory.dto.ItemDto;
+import com.example.inventory.dto.ItemSearchHit;
+import com.example.inventory.service.ItemImportService;
 import com.example.inventory.service.ItemService;
+import com.example.inventory.service.ItemSupplyService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/items")
 @RequiredArgsConstructor
 public class ItemController {
+    private static final String PAGE_SIZE = "" + ItemService.DEFAULT_PAGE_SIZE;
+    private static final String SEARCH_RESULTS = "" + ItemService.DEFAULT_SEARCH_RESULTS;
+    private static final int EXPORT_BUFFER_SIZE = 64 * 1024;
+
     private final ItemService itemService;
+    private final ItemImportService itemImportService;
+    private final ItemSupplyService itemSupplyService;
 
     @PostMapping
     public ResponseEntity<ItemDto> createItem(@Valid @RequestBody CreateItemRequest request) {
@@ -22,6 +46,16 @@ public class ItemController {
         return ResponseEntity.status(201).body(item);
     }
 
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<BulkImportResult> importItemsCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(itemImportService.importCsv(body));
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BulkImportResult> importItemsNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(itemImportService.importNdjson(body));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ItemDto> getItemById(@PathVariable Long id) {
         return itemService.getItemById(id)
@@ -37,13 +71,94 @@ public class ItemController {
     }
 
     @GetMapping
-    public ResponseEntity<List<ItemDto>> getAllItems() {
-        return ResponseEntity.ok(itemService.getAllItems());
+    public ResponseEntity<CursorPage<ItemDto>> getAllItems(@RequestParam(required = false) String cursor,
+                                                           @RequestParam(defaultValue = PAGE_SIZE) int size) {
+        return ResponseEntity.ok(itemService.getAllItems(CursorPage.decodeCursor(cursor), size));
     }
 
     @GetMapping("/available")
-    public ResponseEntity<List<ItemDto>> getAvailableItems() {
-        return ResponseEntity.ok(itemService.getAvailableItems());
+    public ResponseEntity<CursorPage<ItemDto>> getAvailableItems(@RequestParam(required = false) String cursor,
+                                                                 @RequestParam(defaultValue = PAGE_SIZE) int size) {
+        return ResponseEntity.ok(itemService.getAvailableItems(CursorPage.decodeCursor(cursor), size));
+    }
+
+    @GetMapping("/category/{category}")
+    public ResponseEntity<CursorPage<ItemDto>> getItemsByCategory(@PathVariable String category,
+                                                                  @RequestParam(required = false) String cursor,
+                                                                  @RequestParam(defaultValue = PAGE_SIZE) int size) {
+        return ResponseEntity.ok(itemService.getItemsByCategory(category, CursorPage.decodeCursor(cursor), size));
+    }
+
+    @GetMapping("/brand/{brand}")
+    public ResponseEntity<CursorPage<ItemDto>> getItemsByBrand(@PathVariable String brand,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = PAGE_SIZE) int size) {
+        return ResponseEntity.ok(itemService.getItemsByBrand(brand, CursorPage.decodeCursor(cursor), size));
+    }
+
+    /**
+     * Browses the catalog by facets: repeated values of one facet are alternatives, different
+     * facets must all match. Answers 503 until the facet index has been built.
+     */
+    @GetMapping("/browse")
+    public ResponseEntity<CatalogPage> browseItems(@RequestParam(required = false) Set<String> category,
+                                                   @RequestParam(required = false) Set<String> brand,
+                                                   @RequestParam(required = false) Boolean active,
+                                                   @RequestParam(required = false) Boolean inStock,
+                                                   @RequestParam(required = false) String cursor,
+                                                   @RequestParam(defaultValue = PAGE_SIZE) int size) {
+        long afterId = CursorPage.decodeCursor(cursor);
+        CatalogFilter filter = CatalogFilter.builder()
+                .categories(category)
+                .brands(brand)
+                .active(active)
+                .inStock(inStock)
+                .build();
+        return itemService.browseItems(filter, afterId, size)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(503).build());
+    }
+
+    /**
+     * Full-text search over name, description, brand and category. Answers 503 until the search
+     * index has been built.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<ItemSearchHit>> searchItems(@RequestParam String q,
+                                                           @RequestParam(defaultValue = SEARCH_RESULTS) int limit) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return itemService.searchItems(q, limit)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.status(503).build());
+    }
+
+    /**
+     * Streams the whole catalog as NDJSON, gzip-compressed when the client accepts it.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportItems(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream compressed = new GZIPOutputStream(out, EXPORT_BUFFER_SIZE)) {
+                    itemService.exportItems(compressed);
+                }
+            } else {
+                BufferedOutputStream buffered = new BufferedOutputStream(out, EXPORT_BUFFER_SIZE);
+                itemService.exportItems(buffered);
+                buffered.flush();
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=items.ndjson");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
     }
 
     @PostMapping("/{id}/supply")
@@ -52,9 +167,24 @@ public class ItemController {
         return ResponseEntity.ok(item);
     }
 
+    @PostMapping(value = "/supply", consumes = "text/csv")
+    public ResponseEntity<BulkSupplyResult> addSupplyCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(itemSupplyService.supplyCsv(body));
+    }
+
+    @PostMapping(value = "/supply", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BulkSupplyResult> addSupplyNdjson(InputStream body) throws IOException {
+        return ResponseEntity.ok(itemSupplyService.supplyNdjson(body));
+    }
+
     @GetMapping("/{id}/availability")
     public ResponseEntity<Boolean> checkAvailability(@PathVariable Long id, @RequestParam Integer quantity) {
         boolean available = itemService.checkAvailability(id, quantity);
         return ResponseEntity.ok(available);
     }
-} 
\ No newline at end of file
+
+    @PostMapping("/availability")
+    public ResponseEntity<AvailabilityResult> checkAvailability(@Valid @RequestBody AvailabilityRequest request) {
+        return ResponseEntity.ok(itemService.checkAvailability(request));
+    }
+}
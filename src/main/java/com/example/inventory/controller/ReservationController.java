@@ -1,7 +1,9 @@
 package com.example.inventory.controller;
 
+import com.example.inventory.dto.CartReservationRequest;
+import com.example.inventory.dto.CursorPage;
+import com.example.inventory.dto.ReservationDto;
 import com.example.inventory.dto.ReservationRequest;
-import com.example.inventory.entity.Reservation;
 import com.example.inventory.service.ReservationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -14,14 +16,24 @@ import java.util.List;
 @RequestMapping("/api/reservations")
 @RequiredArgsConstructor
 public class ReservationController {
+    private static final String PAGE_SIZE = "" + ReservationService.DEFAULT_PAGE_SIZE;
+
     private final ReservationService reservationService;
 
     @PostMapping
-    public ResponseEntity<Reservation> createReservation(@Valid @RequestBody ReservationRequest request) {
-        Reservation reservation = reservationService.createReservation(request);
+    public ResponseEntity<ReservationDto> createReservation(@Valid @RequestBody ReservationRequest request) {
+        ReservationDto reservation = ReservationDto.from(reservationService.createReservation(request));
         return ResponseEntity.status(201).body(reservation);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<ReservationDto>> createReservations(@Valid @RequestBody CartReservationRequest request) {
+        List<ReservationDto> reservations = reservationService.createReservations(request).stream()
+                .map(ReservationDto::from)
+                .toList();
+        return ResponseEntity.status(201).body(reservations);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<String> cancelReservation(@PathVariable Long id) {
         reservationService.cancelReservation(id);
@@ -29,21 +41,27 @@ public class ReservationController {
     }
 
     @GetMapping("/customer/{customerId}")
-    public ResponseEntity<List<Reservation>> getReservationsByCustomer(@PathVariable String customerId) {
-        List<Reservation> reservations = reservationService.getReservationsByCustomer(customerId);
-        return ResponseEntity.ok(reservations);
+    public ResponseEntity<CursorPage<ReservationDto>> getReservationsByCustomer(
+            @PathVariable String customerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = PAGE_SIZE) int size) {
+        return ResponseEntity.ok(reservationService.getReservationsByCustomer(customerId,
+                CursorPage.decodeCursor(cursor), size));
     }
 
     @GetMapping("/item/{itemId}")
-    public ResponseEntity<List<Reservation>> getReservationsByItem(@PathVariable Long itemId) {
-        List<Reservation> reservations = reservationService.getReservationsByItem(itemId);
-        return ResponseEntity.ok(reservations);
+    public ResponseEntity<CursorPage<ReservationDto>> getReservationsByItem(
+            @PathVariable Long itemId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = PAGE_SIZE) int size) {
+        return ResponseEntity.ok(reservationService.getReservationsByItem(itemId,
+                CursorPage.decodeCursor(cursor), size));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Reservation> getReservation(@PathVariable Long id) {
+    public ResponseEntity<ReservationDto> getReservation(@PathVariable Long id) {
         return reservationService.getReservation(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,52 @@
+package com.example.inventory.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityRequest {
+    
+    public static final int MAX_LINES = 500;
+    
+    @NotEmpty(message = "At least one line is required")
+    @Size(max = MAX_LINES, message = "At most " + MAX_LINES + " lines per request")
+    private List<@Valid @NotNull Line> lines;
+    
+    /**
+     * A quantity of one item, identified by either its ID or its SKU.
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+        
+        private Long itemId;
+        
+        private String sku;
+        
+        @NotNull(message = "Quantity is required")
+        @Positive(message = "Quantity must be positive")
+        private Integer quantity;
+        
+        @JsonIgnore
+        @AssertTrue(message = "Exactly one of item ID or SKU is required")
+        public boolean isIdentified() {
+            return (itemId != null) != (sku != null && !sku.isBlank());
+        }
+    }
+}
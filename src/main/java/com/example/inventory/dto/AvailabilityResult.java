@@ -0,0 +1,22 @@
+package com.example.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Whether each requested item can cover its quantity, keyed the way it was asked for.
+ * Unknown items are reported as unavailable.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AvailabilityResult {
+    
+    private Map<Long, Boolean> items;
+    private Map<String, Boolean> skus;
+}
@@ -0,0 +1,30 @@
+package com.example.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportResult {
+    
+    private int received;
+    private int imported;
+    private List<RowError> errors;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RowError {
+        
+        /** 1-based position of the record in the upload, not counting a CSV header. */
+        private int row;
+        private String sku;
+        private String message;
+    }
+}
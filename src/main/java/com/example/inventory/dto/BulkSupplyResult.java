@@ -0,0 +1,36 @@
+package com.example.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkSupplyResult {
+    
+    /** Lines in the upload, including rejected ones. */
+    private int received;
+    /** SKUs whose supply was applied. */
+    private int applied;
+    /** One entry per distinct valid SKU, in SKU order. */
+    private List<SkuResult> results;
+    /** Lines rejected before aggregation. */
+    private List<BulkImportResult.RowError> errors;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class SkuResult {
+        
+        private String sku;
+        /** Total quantity of all lines for the SKU. */
+        private long quantity;
+        private boolean applied;
+        private String message;
+    }
+}
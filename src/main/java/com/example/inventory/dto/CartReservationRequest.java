@@ -0,0 +1,42 @@
+package com.example.inventory.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartReservationRequest {
+    
+    @NotBlank(message = "Customer ID is required")
+    private String customerId;
+    
+    @NotEmpty(message = "At least one cart line is required")
+    private List<@Valid @NotNull CartLine> lines;
+    
+    private Integer expirationMinutes;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CartLine {
+        
+        @NotNull(message = "Item ID is required")
+        private Long itemId;
+        
+        @NotNull(message = "Quantity is required")
+        @Positive(message = "Quantity must be positive")
+        private Integer quantity;
+    }
+}
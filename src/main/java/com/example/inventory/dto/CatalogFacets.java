@@ -0,0 +1,23 @@
+package com.example.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * How many of the matching items fall under each facet value. Values with no matching items are left out.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogFacets {
+    
+    private Map<String, Long> categories;
+    private Map<String, Long> brands;
+    private long active;
+    private long inStock;
+}
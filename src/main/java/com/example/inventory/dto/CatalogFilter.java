@@ -0,0 +1,24 @@
+package com.example.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+
+/**
+ * Browse filter over the catalog facets. Values within a facet are alternatives (OR), facets are
+ * combined with AND. An empty or {@code null} facet does not filter.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogFilter {
+    
+    private Set<String> categories;
+    private Set<String> brands;
+    private Boolean active;
+    private Boolean inStock;
+}
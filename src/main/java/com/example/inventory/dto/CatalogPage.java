@@ -0,0 +1,24 @@
+package com.example.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a faceted browse: the items in id order, a cursor as in {@link CursorPage}, and the
+ * total and facet counts over every matching item.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogPage {
+    
+    private List<ItemDto> items;
+    private String nextCursor;
+    private long total;
+    private CatalogFacets facets;
+}
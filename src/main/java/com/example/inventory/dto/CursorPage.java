@@ -0,0 +1,66 @@
+package com.example.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.ToLongFunction;
+
+/**
+ * One page of a keyset-paginated listing. {@code nextCursor} is an opaque token for the following
+ * page, or {@code null} on the last page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> items;
+    private String nextCursor;
+
+    /**
+     * Builds a page from a query that asked for one row more than {@code pageSize}; the extra row
+     * only signals that a next page exists.
+     */
+    public static <T> CursorPage<T> of(List<T> rows, int pageSize, ToLongFunction<T> id) {
+        boolean hasNext = rows.size() > pageSize;
+        List<T> page = hasNext ? rows.subList(0, pageSize) : rows;
+        return CursorPage.<T>builder()
+                .items(page)
+                .nextCursor(hasNext ? encodeCursor(id.applyAsLong(page.get(pageSize - 1))) : null)
+                .build();
+    }
+
+    public static String encodeCursor(Long lastId) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(lastId.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the id to continue after, {@code 0} for the first page
+     * @throws InvalidCursorException if the cursor is not one issued by {@link #encodeCursor(Long)};
+     *         controllers answer it with 400 Bad Request
+     */
+    public static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(cursor, e);
+        }
+    }
+
+    public static class InvalidCursorException extends IllegalArgumentException {
+
+        public InvalidCursorException(String cursor, Throwable cause) {
+            super("Invalid cursor: " + cursor, cause);
+        }
+    }
+}
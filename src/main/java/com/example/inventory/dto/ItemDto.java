@@ -9,6 +9,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Data
 @Builder
@@ -45,4 +46,14 @@ public class ItemDto {
     private String createdAt;
     
     private String updatedAt;
+    
+    /**
+     * Used by the projection queries in {@code ItemRepository}, which select straight into DTOs.
+     */
+    public ItemDto(Long id, String name, String description, String sku, BigDecimal price,
+                   Integer availableQuantity, Integer reservedQuantity, String category, String brand,
+                   Boolean isActive, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, name, description, sku, price, availableQuantity, reservedQuantity, category, brand, isActive,
+                createdAt != null ? createdAt.toString() : null, updatedAt != null ? updatedAt.toString() : null);
+    }
 } 
\ No newline at end of file
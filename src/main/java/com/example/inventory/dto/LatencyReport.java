@@ -0,0 +1,39 @@
+package com.example.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * Request latency per route over the rolling window, with each route's latency objective and how
+ * often it was missed. Latencies are in milliseconds; the {@code total} counts run since startup.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LatencyReport {
+
+    private long windowSeconds;
+    private Map<String, Route> routes;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Route {
+
+        private long count;
+        private double p50;
+        private double p99;
+        private double p999;
+        private double max;
+        private long sloMs;
+        private long sloBreaches;
+        private long totalCount;
+        private long totalSloBreaches;
+    }
+}
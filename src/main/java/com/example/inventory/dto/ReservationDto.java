@@ -0,0 +1,50 @@
+package com.example.inventory.dto;
+
+import com.example.inventory.entity.Item;
+import com.example.inventory.entity.Reservation;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.Hibernate;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationDto {
+    
+    private Long id;
+    private Long itemId;
+    private String itemSku;
+    private String itemName;
+    private String customerId;
+    private Integer quantity;
+    private Reservation.ReservationStatus status;
+    private LocalDateTime expiresAt;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    
+    /**
+     * Maps a reservation that was just written. The item's SKU and name are only filled in when the
+     * item is already loaded, so mapping never triggers a lazy load.
+     */
+    public static ReservationDto from(Reservation reservation) {
+        Item item = reservation.getItem();
+        boolean loaded = Hibernate.isInitialized(item);
+        return ReservationDto.builder()
+                .id(reservation.getId())
+                .itemId(item.getId())
+                .itemSku(loaded ? item.getSku() : null)
+                .itemName(loaded ? item.getName() : null)
+                .customerId(reservation.getCustomerId())
+                .quantity(reservation.getQuantity())
+                .status(reservation.getStatus())
+                .expiresAt(reservation.getExpiresAt())
+                .createdAt(reservation.getCreatedAt())
+                .updatedAt(reservation.getUpdatedAt())
+                .build();
+    }
+}
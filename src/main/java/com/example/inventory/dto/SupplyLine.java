@@ -0,0 +1,24 @@
+package com.example.inventory.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One line of a warehouse receiving feed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SupplyLine {
+    
+    @NotBlank(message = "SKU is required")
+    private String sku;
+    
+    @NotNull(message = "Quantity is required")
+    @Positive(message = "Quantity must be positive")
+    private Integer quantity;
+}
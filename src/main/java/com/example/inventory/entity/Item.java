@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -23,7 +24,8 @@ import java.time.LocalDateTime;
 public class Item {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
     
     @NotBlank(message = "Item name is required")
@@ -43,12 +45,13 @@ public class Item {
     private BigDecimal price;
     
     @NotNull(message = "Available quantity is required")
-    @Positive(message = "Available quantity must be positive")
+    @PositiveOrZero(message = "Available quantity cannot be negative")
     @Column(name = "available_quantity", nullable = false)
     private Integer availableQuantity;
     
     @NotNull(message = "Reserved quantity is required")
     @Column(name = "reserved_quantity", nullable = false)
+    @Builder.Default
     private Integer reservedQuantity = 0;
     
     @Column(name = "category")
@@ -58,6 +61,7 @@ public class Item {
     private String brand;
     
     @Column(name = "is_active", nullable = false)
+    @Builder.Default
     private Boolean isActive = true;
     
     @CreationTimestamp
@@ -13,7 +13,11 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "reservations")
+@Table(name = "reservations", indexes = {
+        // Listings filter on these and page by id
+        @Index(name = "idx_reservations_customer_id", columnList = "customer_id, id"),
+        @Index(name = "idx_reservations_item_id", columnList = "item_id, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -21,7 +25,8 @@ import java.time.LocalDateTime;
 public class Reservation {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservations_seq")
+    @SequenceGenerator(name = "reservations_seq", sequenceName = "reservations_seq", allocationSize = 50)
     private Long id;
     
     @NotNull(message = "Item is required")
@@ -0,0 +1,35 @@
+package com.example.inventory.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A reserved-quantity change admitted by the stock ledger and not yet folded into its item row.
+ * Written in the same transaction as the reservation change it belongs to, so the change survives
+ * a crash before the write-behind flush; the flusher applies and deletes entries together.
+ */
+@Entity
+@Table(name = "stock_ledger_entries", indexes = {
+        @Index(name = "idx_stock_ledger_entries_item_id", columnList = "item_id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockLedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_ledger_entries_seq")
+    @SequenceGenerator(name = "stock_ledger_entries_seq", sequenceName = "stock_ledger_entries_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "item_id", nullable = false)
+    private Long itemId;
+
+    /** Positive for a reservation, negative for a release. */
+    @Column(name = "delta", nullable = false)
+    private Integer delta;
+}
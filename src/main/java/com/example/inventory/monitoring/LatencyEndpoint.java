@@ -0,0 +1,25 @@
+package com.example.inventory.monitoring;
+
+import com.example.inventory.dto.LatencyReport;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/latency}: p50, p99 and p99.9 per route over the rolling window, with SLO breaches.
+ */
+@Component
+@Endpoint(id = "latency")
+public class LatencyEndpoint {
+
+    private final RouteLatencyRecorder recorder;
+
+    public LatencyEndpoint(RouteLatencyRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public LatencyReport latency() {
+        return recorder.report();
+    }
+}
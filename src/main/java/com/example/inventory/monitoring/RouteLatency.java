@@ -0,0 +1,92 @@
+package com.example.inventory.monitoring;
+
+import com.example.inventory.dto.LatencyReport;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency of one route, in microseconds. Request threads record into a {@link Recorder}, which
+ * never blocks them; the rotating thread swaps its interval histogram into a ring of closed
+ * slices, and reports merge whatever the ring holds.
+ */
+final class RouteLatency {
+
+    private final Recorder recorder;
+    private final AtomicReferenceArray<Histogram> slices;
+    private final long highestTrackableMicros;
+    private final int significantDigits;
+    private final long sloMicros;
+    private final long sloMs;
+    private final LongAdder total = new LongAdder();
+    private final LongAdder totalBreaches = new LongAdder();
+    // Only touched by the rotating thread: an empty interval handed back to the recorder for reuse
+    private Histogram spare;
+
+    RouteLatency(int slices, long highestTrackableMicros, int significantDigits, long sloMs) {
+        this.recorder = new Recorder(highestTrackableMicros, significantDigits);
+        this.slices = new AtomicReferenceArray<>(slices);
+        this.highestTrackableMicros = highestTrackableMicros;
+        this.significantDigits = significantDigits;
+        this.sloMicros = sloMs * 1000;
+        this.sloMs = sloMs;
+    }
+
+    void record(long nanos) {
+        long micros = Math.min(Math.max(nanos / 1000, 0), highestTrackableMicros);
+        recorder.recordValue(micros);
+        total.increment();
+        if (micros > sloMicros) {
+            totalBreaches.increment();
+        }
+    }
+
+    /**
+     * Closes the current interval into {@code slice}, replacing the slice that fell out of the
+     * window. Idle intervals are not kept.
+     */
+    void rotate(int slice) {
+        Histogram interval = recorder.getIntervalHistogram(spare);
+        if (interval.getTotalCount() == 0) {
+            spare = interval;
+            slices.set(slice, null);
+        } else {
+            spare = null;
+            slices.set(slice, interval);
+        }
+    }
+
+    LatencyReport.Route report() {
+        Histogram window = new Histogram(highestTrackableMicros, significantDigits);
+        for (int i = 0; i < slices.length(); i++) {
+            Histogram slice = slices.get(i);
+            if (slice != null) {
+                window.add(slice);
+            }
+        }
+        // Counted from the first value distinguishable from the objective, so to the histogram's precision
+        long breaches = window.getTotalCount() == 0 || sloMicros >= highestTrackableMicros ? 0
+                : window.getCountBetweenValues(window.nextNonEquivalentValue(sloMicros), highestTrackableMicros);
+        return LatencyReport.Route.builder()
+                .count(window.getTotalCount())
+                .p50(millis(window.getValueAtPercentile(50.0)))
+                .p99(millis(window.getValueAtPercentile(99.0)))
+                .p999(millis(window.getValueAtPercentile(99.9)))
+                .max(millis(window.getMaxValue()))
+                .sloMs(sloMs)
+                .sloBreaches(breaches)
+                .totalCount(total.sum())
+                .totalSloBreaches(totalBreaches.sum())
+                .build();
+    }
+
+    double totalBreaches() {
+        return totalBreaches.sum();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
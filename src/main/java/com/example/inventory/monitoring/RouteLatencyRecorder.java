@@ -0,0 +1,105 @@
+package com.example.inventory.monitoring;
+
+import com.example.inventory.config.LatencyProperties;
+import com.example.inventory.dto.LatencyReport;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpMethod;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Per-route latency histograms behind the {@code latency} actuator endpoint. A route is the HTTP
+ * method and the handler's path pattern, e.g. {@code GET /api/items/{id}}. Requests no handler
+ * matched, those only the static resource catch-all {@value #CATCH_ALL} matched and those with a
+ * method outside the standard HTTP set all share the {@value #UNMATCHED} route, so clients cannot
+ * grow the map or the meter's tag values.
+ * <p>
+ * Recording is lock-free: a map lookup, a histogram increment and two adders. Every slice interval
+ * the open interval of each route is closed into a ring, and reports cover the closed slices, so
+ * they lag the newest requests by up to one interval. SLO breaches since startup are also
+ * published as {@code inventory.http.slo.breaches} by {@code route}.
+ */
+@Component
+public class RouteLatencyRecorder {
+
+    public static final String UNMATCHED = "unmatched";
+    static final String CATCH_ALL = "/**";
+
+    // Tomcat accepts any token as a method, so only the standard ones get routes of their own
+    private static final Set<String> METHODS = Arrays.stream(HttpMethod.values())
+            .map(HttpMethod::name)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private final LatencyProperties properties;
+    private final MeterRegistry meterRegistry;
+    // Pattern, then method, so lookups need no key concatenation
+    private final Map<String, Map<String, RouteLatency>> routes = new ConcurrentHashMap<>();
+    private final RouteLatency unmatched;
+    private int slice;
+
+    public RouteLatencyRecorder(LatencyProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.unmatched = create(UNMATCHED);
+    }
+
+    /**
+     * @param pattern the matched handler's path pattern, or {@code null} when no handler matched
+     */
+    public void record(String method, String pattern, long nanos) {
+        if (pattern == null || pattern.equals(CATCH_ALL) || !METHODS.contains(method)) {
+            unmatched.record(nanos);
+            return;
+        }
+        Map<String, RouteLatency> byMethod = routes.get(pattern);
+        if (byMethod == null) {
+            byMethod = routes.computeIfAbsent(pattern, p -> new ConcurrentHashMap<>());
+        }
+        RouteLatency route = byMethod.get(method);
+        if (route == null) {
+            route = byMethod.computeIfAbsent(method, m -> create(route(m, pattern)));
+        }
+        route.record(nanos);
+    }
+
+    @Scheduled(fixedRateString = "${app.latency.slice-interval-ms:10000}")
+    public synchronized void rotate() {
+        slice = (slice + 1) % properties.getSlices();
+        unmatched.rotate(slice);
+        routes.values().forEach(byMethod -> byMethod.values().forEach(route -> route.rotate(slice)));
+    }
+
+    public LatencyReport report() {
+        Map<String, LatencyReport.Route> report = new TreeMap<>();
+        routes.forEach((pattern, byMethod) ->
+                byMethod.forEach((method, route) -> report.put(route(method, pattern), route.report())));
+        report.put(UNMATCHED, unmatched.report());
+        return LatencyReport.builder()
+                .windowSeconds(properties.getSlices() * properties.getSliceIntervalMs() / 1000)
+                .routes(report)
+                .build();
+    }
+
+    private RouteLatency create(String route) {
+        RouteLatency latency = new RouteLatency(properties.getSlices(), properties.getHighestTrackableMs() * 1000,
+                properties.getSignificantDigits(),
+                properties.getSloMs().getOrDefault(route, properties.getDefaultSloMs()));
+        FunctionCounter.builder("inventory.http.slo.breaches", latency, RouteLatency::totalBreaches)
+                .description("Requests slower than their route's latency objective")
+                .tag("route", route)
+                .register(meterRegistry);
+        return latency;
+    }
+
+    private static String route(String method, String pattern) {
+        return method + " " + pattern;
+    }
+}
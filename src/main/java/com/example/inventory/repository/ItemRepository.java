@@ -1,19 +1,46 @@
 package com.example.inventory.repository;
 
+import com.example.inventory.dto.ItemDto;
 import com.example.inventory.entity.Item;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
     
+    /** Rows the driver fetches per round trip while streaming the catalog. */
+    String EXPORT_FETCH_SIZE = "1000";
+    
+    /**
+     * Selects items straight into {@link ItemDto}s, so read paths skip entity hydration and the
+     * persistence context's dirty-checking snapshots.
+     */
+    String SELECT_ITEM_DTO = "SELECT new com.example.inventory.dto.ItemDto(i.id, i.name, i.description, i.sku, " +
+            "i.price, i.availableQuantity, i.reservedQuantity, i.category, i.brand, i.isActive, i.createdAt, " +
+            "i.updatedAt) FROM Item i ";
+    
+    /** Columns the catalog search index is built from. */
+    String SELECT_SEARCH_FIELDS = "SELECT i.id AS id, i.name AS name, i.description AS description, " +
+            "i.brand AS brand, i.category AS category, i.isActive AS active FROM Item i ";
+    
+    /** Columns the catalog facet index is built from. */
+    String SELECT_FACETS = "SELECT i.id AS id, i.category AS category, i.brand AS brand, i.isActive AS active, " +
+            "i.availableQuantity AS availableQuantity FROM Item i ";
+    
     Optional<Item> findBySku(String sku);
     
     Optional<Item> findByName(String name);
@@ -43,20 +70,104 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     @Query("SELECT i FROM Item i WHERE i.brand = :brand AND i.isActive = true")
     List<Item> findActiveItemsByBrand(@Param("brand") String brand);
     
+    @Query(SELECT_ITEM_DTO + "WHERE i.id = :id")
+    Optional<ItemDto> findDtoById(@Param("id") Long id);
+    
+    @Query("SELECT i.id FROM Item i WHERE i.sku = :sku")
+    Optional<Long> findIdBySku(@Param("sku") String sku);
+    
+    // Keyset pages: callers ask for one row more than the page size to detect a next page
+    
+    @Query(SELECT_ITEM_DTO + "WHERE i.id > :afterId ORDER BY i.id")
+    List<ItemDto> findPageAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query(SELECT_ITEM_DTO + "WHERE i.availableQuantity > 0 AND i.isActive = true AND i.id > :afterId ORDER BY i.id")
+    List<ItemDto> findAvailablePageAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query(SELECT_ITEM_DTO + "WHERE i.category = :category AND i.id > :afterId ORDER BY i.id")
+    List<ItemDto> findByCategoryPageAfter(@Param("category") String category, @Param("afterId") Long afterId,
+                                          Pageable pageable);
+    
+    @Query(SELECT_ITEM_DTO + "WHERE i.brand = :brand AND i.id > :afterId ORDER BY i.id")
+    List<ItemDto> findByBrandPageAfter(@Param("brand") String brand, @Param("afterId") Long afterId,
+                                       Pageable pageable);
+    
+    /**
+     * Forward-only read of the whole catalog in id order. Must be consumed inside a transaction
+     * and closed.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(SELECT_ITEM_DTO + "ORDER BY i.id")
+    Stream<ItemDto> streamAllOrderById();
+    
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT i FROM Item i WHERE i.id = :id")
     Optional<Item> findByIdWithLock(@Param("id") Long id);
     
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Item i WHERE i.id IN :ids ORDER BY i.id")
+    List<Item> findAllByIdWithLock(@Param("ids") Collection<Long> ids);
+    
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT i FROM Item i WHERE i.sku = :sku")
     Optional<Item> findBySkuWithLock(@Param("sku") String sku);
     
+    /**
+     * Locks the items with the given SKUs in id order and returns just what a bulk supply needs.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i.id AS id, i.sku AS sku, i.version AS version FROM Item i WHERE i.sku IN :skus ORDER BY i.id")
+    List<SupplyTarget> lockSupplyTargets(@Param("skus") Collection<String> skus);
+    
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT i FROM Item i WHERE i.id = :id AND i.isActive = true")
     Optional<Item> findActiveItemByIdWithLock(@Param("id") Long id);
     
+    @Modifying
+    @Query("UPDATE Item i SET i.availableQuantity = i.availableQuantity - :quantity, " +
+           "i.reservedQuantity = i.reservedQuantity + :quantity, i.version = i.version + 1 " +
+           "WHERE i.id = :id AND i.isActive = true AND i.availableQuantity >= :quantity")
+    int reserveQuantityIfAvailable(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    @Modifying
+    @Query("UPDATE Item i SET i.availableQuantity = i.availableQuantity + :quantity, " +
+           "i.reservedQuantity = i.reservedQuantity - :quantity, i.version = i.version + 1 " +
+           "WHERE i.id = :id AND i.reservedQuantity >= :quantity")
+    int releaseReservedQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+    
+    @Modifying
+    @Query("UPDATE Item i SET i.availableQuantity = i.availableQuantity - :delta, " +
+           "i.reservedQuantity = i.reservedQuantity + :delta, i.version = i.version + 1 WHERE i.id = :id")
+    int applyReservedDelta(@Param("id") Long id, @Param("delta") int delta);
+    
     boolean existsBySku(String sku);
     
+    @Query("SELECT i.id AS id, i.sku AS sku, i.isActive AS active, i.availableQuantity AS availableQuantity " +
+           "FROM Item i WHERE i.id IN :ids OR i.sku IN :skus")
+    List<AvailabilityView> findAvailability(@Param("ids") Collection<Long> ids,
+                                            @Param("skus") Collection<String> skus);
+    
+    @Query(SELECT_FACETS + "WHERE i.id > :afterId ORDER BY i.id")
+    List<FacetView> findFacetsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query(SELECT_FACETS + "WHERE i.id IN :ids")
+    List<FacetView> findFacets(@Param("ids") Collection<Long> ids);
+    
+    @Query(SELECT_SEARCH_FIELDS + "WHERE i.id > :afterId ORDER BY i.id")
+    List<SearchView> findSearchFieldsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query(SELECT_SEARCH_FIELDS + "WHERE i.id IN :ids")
+    List<SearchView> findSearchFields(@Param("ids") Collection<Long> ids);
+    
+    @Query(SELECT_ITEM_DTO + "WHERE i.id IN :ids ORDER BY i.id")
+    List<ItemDto> findDtosByIds(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT i.sku FROM Item i WHERE i.sku IN :skus")
+    List<String> findExistingSkus(@Param("skus") Collection<String> skus);
+    
+    @Query("SELECT i.name FROM Item i WHERE i.name IN :names")
+    List<String> findExistingNames(@Param("names") Collection<String> names);
+    
     boolean existsByName(String name);
     
     boolean existsBySkuAndIsActiveTrue(String sku);
@@ -66,4 +177,52 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
     long countByIsActiveTrue();
     
     long countByIsActiveFalse();
-} 
\ No newline at end of file
+    
+    interface AvailabilityView {
+        
+        Long getId();
+        
+        String getSku();
+        
+        Boolean getActive();
+        
+        Integer getAvailableQuantity();
+    }
+    
+    interface FacetView {
+        
+        Long getId();
+        
+        String getCategory();
+        
+        String getBrand();
+        
+        Boolean getActive();
+        
+        Integer getAvailableQuantity();
+    }
+    
+    interface SearchView {
+        
+        Long getId();
+        
+        String getName();
+        
+        String getDescription();
+        
+        String getBrand();
+        
+        String getCategory();
+        
+        Boolean getActive();
+    }
+    
+    interface SupplyTarget {
+        
+        Long getId();
+        
+        String getSku();
+        
+        Long getVersion();
+    }
+}
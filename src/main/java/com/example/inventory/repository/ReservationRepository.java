@@ -1,20 +1,51 @@
 package com.example.inventory.repository;
 
+import com.example.inventory.dto.ReservationDto;
 import com.example.inventory.entity.Reservation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
     
+    /** Lock timeout hint value Hibernate renders as SKIP LOCKED where the dialect supports it. */
+    String SKIP_LOCKED = "-2";
+    
+    /**
+     * Selects reservations straight into {@link ReservationDto}s, joining the item columns they
+     * show, so a listing costs one statement however many rows it returns.
+     */
+    String SELECT_RESERVATION_DTO = "SELECT new com.example.inventory.dto.ReservationDto(r.id, i.id, i.sku, " +
+            "i.name, r.customerId, r.quantity, r.status, r.expiresAt, r.createdAt, r.updatedAt) " +
+            "FROM Reservation r JOIN r.item i ";
+    
     List<Reservation> findByCustomerId(String customerId);
     
+    @Query(SELECT_RESERVATION_DTO + "WHERE r.id = :id")
+    Optional<ReservationDto> findDtoById(@Param("id") Long id);
+    
+    // Keyset pages: callers ask for one row more than the page size to detect a next page
+    
+    @Query(SELECT_RESERVATION_DTO + "WHERE r.customerId = :customerId AND r.id > :afterId ORDER BY r.id")
+    List<ReservationDto> findByCustomerPageAfter(@Param("customerId") String customerId,
+                                                 @Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query(SELECT_RESERVATION_DTO + "WHERE i.id = :itemId AND r.id > :afterId ORDER BY r.id")
+    List<ReservationDto> findByItemPageAfter(@Param("itemId") Long itemId, @Param("afterId") Long afterId,
+                                             Pageable pageable);
+    
     List<Reservation> findByItemId(Long itemId);
     
     List<Reservation> findByCustomerIdAndStatus(String customerId, Reservation.ReservationStatus status);
@@ -24,6 +55,22 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     @Query("SELECT r FROM Reservation r WHERE r.status = 'ACTIVE' AND r.expiresAt < :now")
     List<Reservation> findExpiredReservations(@Param("now") LocalDateTime now);
     
+    // Rows locked by another node's sweep are skipped rather than waited on
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("SELECT r FROM Reservation r WHERE r.status = 'ACTIVE' AND r.expiresAt < :now ORDER BY r.id")
+    List<Reservation> findExpiredReservationsForUpdate(@Param("now") LocalDateTime now, Pageable pageable);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = SKIP_LOCKED))
+    @Query("SELECT r FROM Reservation r WHERE r.id IN :ids AND r.status = 'ACTIVE' AND r.expiresAt < :now ORDER BY r.id")
+    List<Reservation> findExpiredReservationsByIdForUpdate(@Param("ids") Collection<Long> ids,
+                                                           @Param("now") LocalDateTime now);
+    
+    @Query("SELECT r.id AS id, r.expiresAt AS expiresAt FROM Reservation r " +
+           "WHERE r.status = 'ACTIVE' AND r.id > :afterId ORDER BY r.id")
+    List<ExpiryView> findActiveExpiriesAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
     @Query("SELECT r FROM Reservation r WHERE r.customerId = :customerId AND r.item.id = :itemId AND r.status = 'ACTIVE'")
     List<Reservation> findActiveReservationsByCustomerAndItem(@Param("customerId") String customerId, 
                                                              @Param("itemId") Long itemId);
@@ -32,4 +79,11 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     Integer getTotalReservedQuantityForItem(@Param("itemId") Long itemId);
     
     boolean existsByCustomerIdAndItemIdAndStatus(String customerId, Long itemId, Reservation.ReservationStatus status);
-} 
\ No newline at end of file
+    
+    interface ExpiryView {
+        
+        Long getId();
+        
+        LocalDateTime getExpiresAt();
+    }
+}
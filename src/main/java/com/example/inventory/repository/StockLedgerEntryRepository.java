@@ -0,0 +1,42 @@
+package com.example.inventory.repository;
+
+import com.example.inventory.entity.StockLedgerEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StockLedgerEntryRepository extends JpaRepository<StockLedgerEntry, Long> {
+
+    String PENDING_DELTA = "COALESCE((SELECT SUM(e.delta) FROM StockLedgerEntry e WHERE e.itemId = i.id), 0)";
+
+    @Query("SELECT DISTINCT e.itemId FROM StockLedgerEntry e")
+    List<Long> findPendingItemIds();
+
+    List<StockLedgerEntry> findByItemId(Long itemId);
+
+    /**
+     * The item's stock with its unfolded entries applied. One statement, so a flush committing
+     * between reading the row and reading the entries cannot be counted twice or not at all.
+     */
+    @Query("SELECT i.isActive AS active, i.version AS version, " +
+           "i.availableQuantity - " + PENDING_DELTA + " AS availableQuantity, " +
+           "i.reservedQuantity + " + PENDING_DELTA + " AS reservedQuantity " +
+           "FROM Item i WHERE i.id = :itemId")
+    Optional<LedgerState> findLedgerState(@Param("itemId") Long itemId);
+
+    interface LedgerState {
+
+        Boolean getActive();
+
+        Long getVersion();
+
+        Long getAvailableQuantity();
+
+        Long getReservedQuantity();
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.inventory.service;
+
+import com.example.inventory.dto.BulkImportResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the uploads of the bulk endpoints. Records that cannot be read are reported by position
+ * and skipped, so one bad line does not reject the whole upload.
+ */
+final class BulkRecords {
+
+    private static final CsvMapper CSV_MAPPER = CsvMapper.builder()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    private BulkRecords() {
+    }
+
+    /**
+     * Reads CSV with a header row naming the fields of {@code type}.
+     */
+    static <T> List<Parsed<T>> readCsv(InputStream in, Class<T> type, List<BulkImportResult.RowError> errors)
+            throws IOException {
+        List<Parsed<T>> records = new ArrayList<>();
+        ObjectReader reader = CSV_MAPPER.readerFor(type).with(CsvSchema.emptySchema().withHeader());
+        try (MappingIterator<T> iterator = reader.readValues(in)) {
+            int row = 0;
+            while (hasNextRecord(iterator, row, errors)) {
+                row++;
+                try {
+                    records.add(new Parsed<>(row, iterator.nextValue()));
+                } catch (JsonProcessingException e) {
+                    // The iterator skips to the next record after a bad one
+                    errors.add(new BulkImportResult.RowError(row, null, "Unreadable row: " + e.getOriginalMessage()));
+                }
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Reads newline-delimited JSON, one {@code type} per line. Blank lines are skipped.
+     */
+    static <T> List<Parsed<T>> readNdjson(ObjectMapper objectMapper, InputStream in, Class<T> type,
+                                          List<BulkImportResult.RowError> errors) throws IOException {
+        List<Parsed<T>> records = new ArrayList<>();
+        ObjectReader reader = objectMapper.readerFor(type)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            int row = 0;
+            String line;
+            while ((line = lines.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                row++;
+                try {
+                    records.add(new Parsed<>(row, reader.readValue(line)));
+                } catch (JsonProcessingException e) {
+                    errors.add(new BulkImportResult.RowError(row, null, "Unreadable row: " + e.getOriginalMessage()));
+                }
+            }
+        }
+        return records;
+    }
+
+    // Malformed CSV syntax cannot be skipped past, so the rest of the upload is reported as one error
+    private static boolean hasNextRecord(MappingIterator<?> iterator, int row,
+                                         List<BulkImportResult.RowError> errors) throws IOException {
+        try {
+            return iterator.hasNextValue();
+        } catch (JsonProcessingException e) {
+            errors.add(new BulkImportResult.RowError(row + 1, null,
+                    "Unreadable input, rest of upload skipped: " + e.getOriginalMessage()));
+            return false;
+        }
+    }
+
+    /**
+     * @param row 1-based position of the record in the upload, not counting a CSV header
+     */
+    record Parsed<T>(int row, T value) {
+    }
+}
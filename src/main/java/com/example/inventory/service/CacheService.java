@@ -1,39 +1,69 @@
 package com.example.inventory.service;
 
+import com.example.inventory.cache.ItemCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collection;
+
+/**
+ * Cache invalidation for writers. Called inside a transaction, evictions (and the invalidation
+ * message other nodes receive) wait until it commits: evicting earlier lets a concurrent read load
+ * the old row and cache it again.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CacheService {
     
     private final CacheManager cacheManager;
+    private final ItemCache itemCache;
+    private final ApplicationEventPublisher eventPublisher;
     
+    /**
+     * Evicts the item, which also invalidates its lookup by SKU, and announces the change to the
+     * in-memory catalog indexes.
+     */
     public void evictItemCache(Long itemId) {
-        log.debug("Evicting item cache for ID: {}", itemId);
-        cacheManager.getCache("items").evict(itemId);
+        afterCommit(() -> itemCache.evict(itemId));
+        // Index listeners already run after commit
+        eventPublisher.publishEvent(ItemsChangedEvent.of(itemId));
     }
     
-    public void evictItemCache(String sku) {
-        log.debug("Evicting item cache for SKU: {}", sku);
-        cacheManager.getCache("items").evict(sku);
+    public void evictItemCaches(Collection<Long> itemIds) {
+        afterCommit(() -> itemCache.evictAll(itemIds));
+        eventPublisher.publishEvent(new ItemsChangedEvent(itemIds));
     }
     
     public void evictAllItemCache() {
-        log.debug("Evicting all item cache");
-        cacheManager.getCache("items").clear();
+        afterCommit(itemCache::clear);
     }
     
     public void evictReservationCache(Long reservationId) {
         log.debug("Evicting reservation cache for ID: {}", reservationId);
-        cacheManager.getCache("reservations").evict(reservationId);
+        afterCommit(() -> cacheManager.getCache("reservations").evict(reservationId));
     }
     
     public void evictAllReservationCache() {
         log.debug("Evicting all reservation cache");
-        cacheManager.getCache("reservations").clear();
+        afterCommit(() -> cacheManager.getCache("reservations").clear());
+    }
+    
+    private static void afterCommit(Runnable eviction) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            eviction.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                eviction.run();
+            }
+        });
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,357 @@
+package com.example.inventory.service;
+
+import com.example.inventory.dto.CatalogFacets;
+import com.example.inventory.dto.CatalogFilter;
+import com.example.inventory.repository.ItemRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process facet index over category, brand, active flag and in-stock flag, so browse filters
+ * and their facet counts are answered from compressed bitmaps of item ids instead of table scans.
+ * <p>
+ * The index is built from the items table once the application is ready. Items named by an
+ * {@link ItemsChangedEvent} are queued when the publishing transaction commits, and a scheduled
+ * refresh re-reads the queued rows in one query and swaps their bits. Item ids are indexed as unsigned
+ * 32-bit values.
+ */
+@Component
+@Slf4j
+public class CatalogFacetIndex {
+
+    static final int REBUILD_PAGE_SIZE = 10_000;
+    static final int REFRESH_CHUNK_SIZE = 1000;
+    private static final long MAX_ID = 0xFFFFFFFFL;
+
+    private final ItemRepository itemRepository;
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+    // Bitmaps are not thread-safe; queries share the read lock, rebuild and refresh take the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Facets facets = new Facets();
+    private volatile boolean ready;
+
+    public CatalogFacetIndex(ItemRepository itemRepository, MeterRegistry meterRegistry) {
+        this.itemRepository = itemRepository;
+        Gauge.builder("inventory.catalog.facets.memory", this, CatalogFacetIndex::sizeInBytes)
+                .description("Estimated heap used by the catalog facet bitmaps")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("inventory.catalog.facets.items", this, CatalogFacetIndex::size)
+                .description("Items in the catalog facet index")
+                .register(meterRegistry);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemsChanged(ItemsChangedEvent event) {
+        changed.addAll(event.itemIds());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        Facets rebuilt = new Facets();
+        long afterId = 0;
+        while (true) {
+            List<ItemRepository.FacetView> page =
+                    itemRepository.findFacetsAfter(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+            page.forEach(rebuilt::add);
+            if (page.size() < REBUILD_PAGE_SIZE) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+        rebuilt.optimize();
+        lock.writeLock().lock();
+        try {
+            facets = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Built catalog facet index for {} items in {} ms, {} bytes", rebuilt.all.getLongCardinality(),
+                (System.nanoTime() - started) / 1_000_000, rebuilt.sizeInBytes());
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.facets.refresh-interval-ms:100}")
+    public void refresh() {
+        if (!ready || changed.isEmpty()) {
+            return;
+        }
+        // Marks arriving from here on are picked up by the next refresh
+        List<Long> ids = new ArrayList<>(changed);
+        changed.removeAll(ids);
+        for (int from = 0; from < ids.size(); from += REFRESH_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(from + REFRESH_CHUNK_SIZE, ids.size()));
+            List<ItemRepository.FacetView> rows;
+            try {
+                rows = itemRepository.findFacets(chunk);
+            } catch (RuntimeException e) {
+                changed.addAll(ids.subList(from, ids.size()));
+                log.error("Failed to refresh catalog facet index for {} items", ids.size() - from, e);
+                return;
+            }
+            lock.writeLock().lock();
+            try {
+                facets.replace(chunk, rows);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.debug("Refreshed catalog facet index for {} items", ids.size());
+    }
+
+    /**
+     * Matches the filter and returns up to {@code limit} item ids after {@code afterId} in id
+     * order, together with the total and facet counts over all matches.
+     *
+     * @throws IllegalStateException if the index has not been built yet
+     */
+    public Selection select(CatalogFilter filter, long afterId, int limit) {
+        if (!ready) {
+            throw new IllegalStateException("Catalog facet index is not ready");
+        }
+        lock.readLock().lock();
+        try {
+            RoaringBitmap matches = facets.match(filter);
+            return new Selection(page(matches, afterId, limit), matches.getLongCardinality(), facets.count(matches));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            return facets.sizeInBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    long size() {
+        lock.readLock().lock();
+        try {
+            return facets.all.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static List<Long> page(RoaringBitmap matches, long afterId, int limit) {
+        List<Long> ids = new ArrayList<>(Math.min(limit, matches.getCardinality()));
+        if (afterId >= MAX_ID) {
+            return ids;
+        }
+        PeekableIntIterator iterator = matches.getIntIterator();
+        iterator.advanceIfNeeded((int) (afterId + 1));
+        while (iterator.hasNext() && ids.size() < limit) {
+            ids.add(Integer.toUnsignedLong(iterator.next()));
+        }
+        return ids;
+    }
+
+    /**
+     * Item ids of one page in id order, plus the total and facet counts over every match.
+     */
+    public record Selection(List<Long> itemIds, long total, CatalogFacets facets) {
+    }
+
+    // Guarded by the enclosing index's lock
+    private static final class Facets {
+
+        private final RoaringBitmap all = new RoaringBitmap();
+        private final RoaringBitmap active = new RoaringBitmap();
+        private final RoaringBitmap inStock = new RoaringBitmap();
+        private final Dimension categories = new Dimension();
+        private final Dimension brands = new Dimension();
+
+        private void add(ItemRepository.FacetView item) {
+            if (item.getId() == null || item.getId() < 0 || item.getId() > MAX_ID) {
+                log.warn("Item ID {} is outside the facet index range, not indexed", item.getId());
+                return;
+            }
+            int id = (int) item.getId().longValue();
+            all.add(id);
+            if (Boolean.TRUE.equals(item.getActive())) {
+                active.add(id);
+            }
+            if (item.getAvailableQuantity() != null && item.getAvailableQuantity() > 0) {
+                inStock.add(id);
+            }
+            categories.add(id, item.getCategory());
+            brands.add(id, item.getBrand());
+        }
+
+        // Items missing from rows were deleted and stay out of the index
+        private void replace(Collection<Long> itemIds, List<ItemRepository.FacetView> rows) {
+            RoaringBitmap ids = new RoaringBitmap();
+            itemIds.stream().filter(id -> id >= 0 && id <= MAX_ID).forEach(id -> ids.add((int) id.longValue()));
+            ids.and(all);
+            all.andNot(ids);
+            active.andNot(ids);
+            inStock.andNot(ids);
+            categories.remove(ids);
+            brands.remove(ids);
+            rows.forEach(this::add);
+        }
+
+        private RoaringBitmap match(CatalogFilter filter) {
+            // Start from the value filters, which are usually far smaller than the catalog
+            RoaringBitmap matches = null;
+            if (filter.getCategories() != null && !filter.getCategories().isEmpty()) {
+                matches = categories.union(filter.getCategories());
+            }
+            if (filter.getBrands() != null && !filter.getBrands().isEmpty()) {
+                RoaringBitmap byBrand = brands.union(filter.getBrands());
+                matches = matches == null ? byBrand : RoaringBitmap.and(matches, byBrand);
+            }
+            if (matches == null) {
+                matches = all.clone();
+            }
+            restrict(matches, active, filter.getActive());
+            restrict(matches, inStock, filter.getInStock());
+            return matches;
+        }
+
+        private CatalogFacets count(RoaringBitmap matches) {
+            return CatalogFacets.builder()
+                    .categories(categories.count(matches))
+                    .brands(brands.count(matches))
+                    .active(RoaringBitmap.andCardinality(active, matches))
+                    .inStock(RoaringBitmap.andCardinality(inStock, matches))
+                    .build();
+        }
+
+        private void optimize() {
+            all.runOptimize();
+            active.runOptimize();
+            inStock.runOptimize();
+            categories.optimize();
+            brands.optimize();
+        }
+
+        private long sizeInBytes() {
+            return all.getLongSizeInBytes() + active.getLongSizeInBytes() + inStock.getLongSizeInBytes()
+                    + categories.sizeInBytes() + brands.sizeInBytes();
+        }
+
+        private static void restrict(RoaringBitmap matches, RoaringBitmap flag, Boolean wanted) {
+            if (Boolean.TRUE.equals(wanted)) {
+                matches.and(flag);
+            } else if (Boolean.FALSE.equals(wanted)) {
+                matches.andNot(flag);
+            }
+        }
+    }
+
+    /**
+     * One bitmap per facet value, plus each item's value ordinal so an item can be moved without
+     * touching every bitmap and a small match set can be counted by walking it. Ordinals are kept
+     * in pages of 65536 ids, keyed like Roaring containers by the high 16 bits of the id.
+     */
+    private static final class Dimension {
+
+        // Intersecting every value's bitmap costs about as much as walking this many matches per value
+        private static final int SCAN_MATCHES_PER_VALUE = 512;
+
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+        private final List<RoaringBitmap> bitmaps = new ArrayList<>();
+        // ordinal + 1 per id, 0 when the item has no value
+        private final Map<Integer, int[]> pages = new HashMap<>();
+
+        private void add(int id, String value) {
+            if (value == null) {
+                return;
+            }
+            int ordinal = ordinals.computeIfAbsent(value, v -> {
+                values.add(v);
+                bitmaps.add(new RoaringBitmap());
+                return values.size() - 1;
+            });
+            bitmaps.get(ordinal).add(id);
+            pages.computeIfAbsent(id >>> 16, page -> new int[1 << 16])[id & 0xFFFF] = ordinal + 1;
+        }
+
+        private void remove(RoaringBitmap ids) {
+            ids.forEach((int id) -> {
+                int[] page = pages.get(id >>> 16);
+                if (page != null && page[id & 0xFFFF] != 0) {
+                    bitmaps.get(page[id & 0xFFFF] - 1).remove(id);
+                    page[id & 0xFFFF] = 0;
+                }
+            });
+        }
+
+        private RoaringBitmap union(Set<String> wanted) {
+            List<RoaringBitmap> selected = new ArrayList<>(wanted.size());
+            for (String value : wanted) {
+                Integer ordinal = ordinals.get(value);
+                if (ordinal != null) {
+                    selected.add(bitmaps.get(ordinal));
+                }
+            }
+            // A fresh bitmap even for a single value, the caller narrows it in place
+            return selected.size() == 1 ? selected.get(0).clone() : FastAggregation.or(selected.iterator());
+        }
+
+        private Map<String, Long> count(RoaringBitmap matches) {
+            long[] counts = new long[values.size()];
+            if (matches.getLongCardinality() <= (long) values.size() * SCAN_MATCHES_PER_VALUE) {
+                matches.forEach((int id) -> {
+                    int[] page = pages.get(id >>> 16);
+                    if (page != null && page[id & 0xFFFF] != 0) {
+                        counts[page[id & 0xFFFF] - 1]++;
+                    }
+                });
+            } else {
+                for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+                    counts[ordinal] = RoaringBitmap.andCardinality(bitmaps.get(ordinal), matches);
+                }
+            }
+            Map<String, Long> byValue = new TreeMap<>();
+            for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+                if (counts[ordinal] > 0) {
+                    byValue.put(values.get(ordinal), counts[ordinal]);
+                }
+            }
+            return byValue;
+        }
+
+        private void optimize() {
+            bitmaps.forEach(RoaringBitmap::runOptimize);
+        }
+
+        private long sizeInBytes() {
+            long size = (long) pages.size() * (1 << 16) * Integer.BYTES;
+            for (RoaringBitmap bitmap : bitmaps) {
+                size += bitmap.getLongSizeInBytes();
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package com.example.inventory.service;
+
+import com.example.inventory.repository.ItemRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.ConstantScoreQuery;
+import org.apache.lucene.search.DisjunctionMaxQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process full-text index over item name, description, brand and category, held in memory by
+ * Lucene. Only active items are indexed.
+ * <p>
+ * Every query word must match in some field, either exactly, as a prefix for the last word (for
+ * search-as-you-type), or within one or two edits for longer words. Each word scores in tiers: an
+ * exact match in any field outranks a prefix or fuzzy match of the same word, and among exact
+ * matches name matches outrank matches in the other fields.
+ * <p>
+ * Like {@link CatalogFacetIndex}, the index is built once the application is ready and kept
+ * current from {@link ItemsChangedEvent}s: changed items are re-read by a scheduled refresh and
+ * become searchable when it reopens the searcher.
+ */
+@Component
+@Slf4j
+public class CatalogSearchIndex {
+
+    static final int REBUILD_PAGE_SIZE = 10_000;
+    static final int REFRESH_CHUNK_SIZE = 1000;
+
+    private static final String ID = "id";
+    // Every searchable field in one, so prefix and fuzzy words walk a single term dictionary
+    private static final String ALL = "all";
+    // Field boosts, highest first
+    private static final Map<String, Float> FIELDS = new LinkedHashMap<>();
+    // Flat score every exact match of a word starts from, on top of its BM25 field score. Prefix
+    // and fuzzy matches score flat too and below it, even with the tie-breaker, so for any one word
+    // an exact match outranks a prefix or fuzzy one however common the word is
+    private static final float EXACT_WEIGHT = 1f;
+    private static final float PREFIX_WEIGHT = 0.8f;
+    private static final float FUZZY_WEIGHT = 0.5f;
+    private static final float TIE_BREAKER = 0.1f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int TWO_EDITS_LENGTH = 8;
+    // Leading characters a fuzzy word must share, which bounds its cost on a large term dictionary
+    private static final int FUZZY_PREFIX_LENGTH = 2;
+    private static final int FUZZY_MAX_EXPANSIONS = 20;
+
+    static {
+        FIELDS.put("name", 4f);
+        FIELDS.put("brand", 2f);
+        FIELDS.put("category", 2f);
+        FIELDS.put("description", 1f);
+    }
+
+    private final ItemRepository itemRepository;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final Set<Long> changed = ConcurrentHashMap.newKeySet();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+    private volatile boolean ready;
+
+    public CatalogSearchIndex(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+        try {
+            this.writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE));
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open catalog search index", e);
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onItemsChanged(ItemsChangedEvent event) {
+        changed.addAll(event.itemIds());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.nanoTime();
+        int indexed = 0;
+        try {
+            writer.deleteAll();
+            long afterId = 0;
+            while (true) {
+                List<ItemRepository.SearchView> page =
+                        itemRepository.findSearchFieldsAfter(afterId, PageRequest.of(0, REBUILD_PAGE_SIZE));
+                for (ItemRepository.SearchView item : page) {
+                    if (Boolean.TRUE.equals(item.getActive())) {
+                        writer.addDocument(document(item));
+                        indexed++;
+                    }
+                }
+                if (page.size() < REBUILD_PAGE_SIZE) {
+                    break;
+                }
+                afterId = page.get(page.size() - 1).getId();
+            }
+            writer.forceMerge(1);
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to build catalog search index", e);
+        }
+        ready = true;
+        log.info("Built catalog search index for {} items in {} ms", indexed, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.search.refresh-interval-ms:1000}")
+    public void refresh() {
+        if (!ready || changed.isEmpty()) {
+            return;
+        }
+        // Marks arriving from here on are picked up by the next refresh
+        List<Long> ids = new ArrayList<>(changed);
+        changed.removeAll(ids);
+        try {
+            for (int from = 0; from < ids.size(); from += REFRESH_CHUNK_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(from + REFRESH_CHUNK_SIZE, ids.size()));
+                List<ItemRepository.SearchView> rows;
+                try {
+                    rows = itemRepository.findSearchFields(chunk);
+                } catch (RuntimeException e) {
+                    changed.addAll(ids.subList(from, ids.size()));
+                    log.error("Failed to refresh catalog search index for {} items", ids.size() - from, e);
+                    return;
+                }
+                reindex(chunk, rows);
+            }
+        } catch (IOException e) {
+            changed.addAll(ids);
+            log.error("Failed to refresh catalog search index for {} items", ids.size(), e);
+            return;
+        } finally {
+            reopen();
+        }
+        log.debug("Refreshed catalog search index for {} items", ids.size());
+    }
+
+    /**
+     * Returns the ids of the best matching active items, best first.
+     *
+     * @throws IllegalStateException if the index has not been built yet
+     */
+    public List<Hit> search(String text, int limit) {
+        if (!ready) {
+            throw new IllegalStateException("Catalog search index is not ready");
+        }
+        Query query = query(text);
+        if (query == null) {
+            return List.of();
+        }
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                ScoreDoc[] docs = searcher.search(query, limit).scoreDocs;
+                StoredFields storedFields = searcher.storedFields();
+                List<Hit> hits = new ArrayList<>(docs.length);
+                for (ScoreDoc doc : docs) {
+                    hits.add(new Hit(Long.valueOf(storedFields.document(doc.doc, Set.of(ID)).get(ID)), doc.score));
+                }
+                return hits;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to search catalog", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+    }
+
+    public record Hit(Long itemId, float score) {
+    }
+
+    // Items missing from rows were deleted, inactive ones are dropped from the index
+    private void reindex(List<Long> itemIds, List<ItemRepository.SearchView> rows) throws IOException {
+        Set<Long> found = new HashSet<>();
+        for (ItemRepository.SearchView item : rows) {
+            found.add(item.getId());
+            Term id = new Term(ID, item.getId().toString());
+            if (Boolean.TRUE.equals(item.getActive())) {
+                writer.updateDocument(id, document(item));
+            } else {
+                writer.deleteDocuments(id);
+            }
+        }
+        for (Long itemId : itemIds) {
+            if (!found.contains(itemId)) {
+                writer.deleteDocuments(new Term(ID, itemId.toString()));
+            }
+        }
+    }
+
+    private void reopen() {
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException e) {
+            log.error("Failed to reopen catalog search index", e);
+        }
+    }
+
+    private static Document document(ItemRepository.SearchView item) {
+        Document document = new Document();
+        document.add(new StringField(ID, item.getId().toString(), Field.Store.YES));
+        addText(document, "name", item.getName());
+        addText(document, "brand", item.getBrand());
+        addText(document, "category", item.getCategory());
+        addText(document, "description", item.getDescription());
+        return document;
+    }
+
+    private static void addText(Document document, String field, String value) {
+        if (value != null) {
+            document.add(new TextField(field, value, Field.Store.NO));
+            document.add(new TextField(ALL, value, Field.Store.NO));
+        }
+    }
+
+    private Query query(String text) {
+        List<String> words = analyze(text);
+        if (words.isEmpty()) {
+            return null;
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get(i);
+            boolean last = i == words.size() - 1;
+            Term term = new Term(ALL, word);
+            List<Query> fields = new ArrayList<>();
+            FIELDS.forEach((field, boost) -> fields.add(new BoostQuery(new TermQuery(new Term(field, word)), boost)));
+            List<Query> variants = new ArrayList<>();
+            variants.add(new BooleanQuery.Builder()
+                    .add(new BoostQuery(new ConstantScoreQuery(new TermQuery(term)), EXACT_WEIGHT), BooleanClause.Occur.MUST)
+                    .add(new DisjunctionMaxQuery(fields, TIE_BREAKER), BooleanClause.Occur.SHOULD)
+                    .build());
+            if (last && word.length() >= MIN_PREFIX_LENGTH) {
+                variants.add(new BoostQuery(new ConstantScoreQuery(new PrefixQuery(term)), PREFIX_WEIGHT));
+            }
+            if (word.length() >= MIN_FUZZY_LENGTH) {
+                int maxEdits = word.length() >= TWO_EDITS_LENGTH ? 2 : 1;
+                variants.add(new BoostQuery(new ConstantScoreQuery(new FuzzyQuery(term, maxEdits, FUZZY_PREFIX_LENGTH,
+                        FUZZY_MAX_EXPANSIONS, true)), FUZZY_WEIGHT));
+            }
+            // A word scores by its best field and form, so repeating it across fields does not stack
+            query.add(new DisjunctionMaxQuery(variants, TIE_BREAKER), BooleanClause.Occur.MUST);
+        }
+        return query.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> words = new ArrayList<>();
+        try (TokenStream tokens = analyzer.tokenStream("name", text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                words.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return words;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.inventory.service;
+
+import com.example.inventory.config.ReservationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timers for the stock hot paths:
+ * <ul>
+ *   <li>{@code inventory.items.lock.wait} by {@code operation}: acquiring item row locks,</li>
+ *   <li>{@code inventory.reservations.create} by {@code mode} and {@code outcome},</li>
+ *   <li>{@code inventory.reservations.cancel} by {@code outcome}.</li>
+ * </ul>
+ * Every tag combination is registered up front, so recording never touches the registry.
+ */
+@Component
+public class InventoryMetrics {
+
+    public enum LockOperation { RESERVE, CART, COALESCED, SUPPLY }
+
+    public enum Outcome {
+        SUCCESS, REJECTED, NOT_FOUND, CONFLICT, ERROR;
+
+        /**
+         * Maps the services' exceptions: {@link IllegalStateException} turns a request away,
+         * {@link IllegalArgumentException} names a missing item or reservation and a
+         * {@link ConcurrencyFailureException} lost a race with another writer.
+         */
+        public static Outcome of(RuntimeException e) {
+            if (e instanceof IllegalStateException) {
+                return REJECTED;
+            }
+            if (e instanceof IllegalArgumentException) {
+                return NOT_FOUND;
+            }
+            if (e instanceof ConcurrencyFailureException) {
+                return CONFLICT;
+            }
+            return ERROR;
+        }
+    }
+
+    private final Map<LockOperation, Timer> lockWait = new EnumMap<>(LockOperation.class);
+    private final Map<ReservationProperties.Mode, Map<Outcome, Timer>> create =
+            new EnumMap<>(ReservationProperties.Mode.class);
+    private final Map<Outcome, Timer> cancel = new EnumMap<>(Outcome.class);
+
+    public InventoryMetrics(MeterRegistry meterRegistry) {
+        for (LockOperation operation : LockOperation.values()) {
+            lockWait.put(operation, Timer.builder("inventory.items.lock.wait")
+                    .description("Time to acquire item row locks")
+                    .tag("operation", tag(operation))
+                    .register(meterRegistry));
+        }
+        for (ReservationProperties.Mode mode : ReservationProperties.Mode.values()) {
+            Map<Outcome, Timer> byOutcome = new EnumMap<>(Outcome.class);
+            for (Outcome outcome : Outcome.values()) {
+                byOutcome.put(outcome, Timer.builder("inventory.reservations.create")
+                        .description("Reservation requests by admission mode and outcome")
+                        .tag("mode", tag(mode))
+                        .tag("outcome", tag(outcome))
+                        .register(meterRegistry));
+            }
+            create.put(mode, byOutcome);
+        }
+        for (Outcome outcome : Outcome.values()) {
+            cancel.put(outcome, Timer.builder("inventory.reservations.cancel")
+                    .description("Reservation cancellations by outcome")
+                    .tag("outcome", tag(outcome))
+                    .register(meterRegistry));
+        }
+    }
+
+    public <T> T timeLockWait(LockOperation operation, Supplier<T> acquire) {
+        return lockWait.get(operation).record(acquire);
+    }
+
+    public void recordCreate(ReservationProperties.Mode mode, Outcome outcome, long nanos) {
+        create.get(mode).get(outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordCancel(Outcome outcome, long nanos) {
+        cancel.get(outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String tag(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
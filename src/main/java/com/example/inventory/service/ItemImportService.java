@@ -0,0 +1,189 @@
+package com.example.inventory.service;
+
+import com.example.inventory.dto.BulkImportResult;
+import com.example.inventory.dto.CreateItemRequest;
+import com.example.inventory.entity.Item;
+import com.example.inventory.repository.ItemRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports a supplier catalog in one request.
+ * <p>
+ * Rows are parsed and validated in memory, SKU and name uniqueness is checked with a few IN
+ * queries instead of two lookups per row, and the accepted rows are inserted in JDBC batches.
+ * Each chunk of {@link #CHUNK_SIZE} rows commits in its own transaction, so a failure late in the
+ * file does not undo the chunks before it. A chunk that hits a unique constraint (a SKU or name
+ * inserted concurrently) is retried row by row to find the conflicting rows. Rejected rows are
+ * reported by position and do not stop the import.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ItemImportService {
+    
+    static final int CHUNK_SIZE = 1000;
+    
+    private final ItemRepository itemRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    /**
+     * Imports CSV with a header row naming the {@link CreateItemRequest} fields.
+     */
+    public BulkImportResult importCsv(InputStream in) throws IOException {
+        List<BulkImportResult.RowError> errors = new ArrayList<>();
+        return importRows(toRows(BulkRecords.readCsv(in, CreateItemRequest.class, errors)), errors);
+    }
+    
+    /**
+     * Imports newline-delimited JSON, one {@link CreateItemRequest} per line. Blank lines are skipped.
+     */
+    public BulkImportResult importNdjson(InputStream in) throws IOException {
+        List<BulkImportResult.RowError> errors = new ArrayList<>();
+        return importRows(toRows(BulkRecords.readNdjson(objectMapper, in, CreateItemRequest.class, errors)), errors);
+    }
+    
+    private static List<Row> toRows(List<BulkRecords.Parsed<CreateItemRequest>> records) {
+        return records.stream().map(record -> new Row(record.row(), record.value())).toList();
+    }
+    
+    private BulkImportResult importRows(List<Row> rows, List<BulkImportResult.RowError> errors) {
+        int received = rows.size() + errors.size();
+        List<Row> accepted = validate(rows, errors);
+        int imported = 0;
+        for (int from = 0; from < accepted.size(); from += CHUNK_SIZE) {
+            imported += importChunk(accepted.subList(from, Math.min(from + CHUNK_SIZE, accepted.size())), errors);
+        }
+        errors.sort((a, b) -> Integer.compare(a.getRow(), b.getRow()));
+        log.info("Imported {} of {} items, {} rejected", imported, received, errors.size());
+        return BulkImportResult.builder()
+                .received(received)
+                .imported(imported)
+                .errors(errors)
+                .build();
+    }
+    
+    // Field constraints and duplicates within the upload; the first occurrence of a SKU or name wins
+    private List<Row> validate(List<Row> rows, List<BulkImportResult.RowError> errors) {
+        Set<String> skus = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        List<Row> accepted = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            Set<ConstraintViolation<CreateItemRequest>> violations = validator.validate(row.request());
+            if (!violations.isEmpty()) {
+                errors.add(row.error(violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; "))));
+            } else if (!skus.add(row.request().getSku())) {
+                errors.add(row.error("Duplicate SKU in import"));
+            } else if (!names.add(row.request().getName())) {
+                errors.add(row.error("Duplicate name in import"));
+            } else {
+                accepted.add(row);
+            }
+        }
+        return accepted;
+    }
+    
+    private int importChunk(List<Row> rows, List<BulkImportResult.RowError> errors) {
+        List<BulkImportResult.RowError> chunkErrors = new ArrayList<>();
+        try {
+            int imported = transactionTemplate.execute(status -> insert(rows, chunkErrors));
+            errors.addAll(chunkErrors);
+            return imported;
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Import chunk of {} rows from row {} conflicts with existing items, retrying row by row",
+                    rows.size(), rows.get(0).row());
+        }
+        int imported = 0;
+        for (Row row : rows) {
+            List<BulkImportResult.RowError> rowErrors = new ArrayList<>();
+            try {
+                imported += transactionTemplate.execute(status -> insert(List.of(row), rowErrors));
+                errors.addAll(rowErrors);
+            } catch (DataIntegrityViolationException e) {
+                errors.add(row.error("Item with SKU " + row.request().getSku() + " or name "
+                        + row.request().getName() + " already exists"));
+            }
+        }
+        return imported;
+    }
+    
+    private int insert(List<Row> rows, List<BulkImportResult.RowError> errors) {
+        Set<String> existingSkus = findExisting(rows, r -> r.request().getSku(), itemRepository::findExistingSkus);
+        Set<String> existingNames = findExisting(rows, r -> r.request().getName(), itemRepository::findExistingNames);
+        List<Item> items = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            if (existingSkus.contains(row.request().getSku())) {
+                errors.add(row.error("Item with SKU " + row.request().getSku() + " already exists"));
+            } else if (existingNames.contains(row.request().getName())) {
+                errors.add(row.error("Item with name " + row.request().getName() + " already exists"));
+            } else {
+                items.add(toItem(row.request()));
+            }
+        }
+        return flush(items);
+    }
+    
+    private static Set<String> findExisting(List<Row> rows, Function<Row, String> key,
+                                            Function<Collection<String>, List<String>> query) {
+        return new HashSet<>(query.apply(rows.stream().map(key).toList()));
+    }
+    
+    // Ids come from the pooled sequence, so these inserts are batched by Hibernate
+    private int flush(List<Item> chunk) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        int size = chunk.size();
+        eventPublisher.publishEvent(new ItemsChangedEvent(itemRepository.saveAll(chunk).stream()
+                .map(Item::getId)
+                .toList()));
+        entityManager.flush();
+        entityManager.clear();
+        return size;
+    }
+    
+    private static Item toItem(CreateItemRequest request) {
+        return Item.builder()
+                .name(request.getName())
+                .description(request.getDescription())
+                .sku(request.getSku())
+                .price(request.getPrice())
+                .availableQuantity(request.getAvailableQuantity())
+                .category(request.getCategory())
+                .brand(request.getBrand())
+                .isActive(true)
+                .build();
+    }
+    
+    private record Row(int row, CreateItemRequest request) {
+        
+        BulkImportResult.RowError error(String message) {
+            return new BulkImportResult.RowError(row, request.getSku(), message);
+        }
+    }
+}
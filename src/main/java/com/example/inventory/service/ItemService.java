@@ -1,19 +1,34 @@
 package com.example.inventory.service;
 
+import com.example.inventory.cache.ItemCache;
+import com.example.inventory.dto.AvailabilityRequest;
+import com.example.inventory.dto.AvailabilityResult;
+import com.example.inventory.dto.CatalogFilter;
+import com.example.inventory.dto.CatalogPage;
 import com.example.inventory.dto.CreateItemRequest;
+import com.example.inventory.dto.CursorPage;
 import com.example.inventory.dto.ItemDto;
+import com.example.inventory.dto.ItemSearchHit;
 import com.example.inventory.entity.Item;
 import com.example.inventory.repository.ItemRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -21,8 +36,19 @@ import java.util.stream.Collectors;
 @Transactional
 public class ItemService {
     
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int DEFAULT_SEARCH_RESULTS = 20;
+    public static final int MAX_SEARCH_RESULTS = 100;
+    
     private final ItemRepository itemRepository;
     private final CacheService cacheService;
+    private final StockLedger stockLedger;
+    private final ItemCache itemCache;
+    private final CatalogFacetIndex catalogFacetIndex;
+    private final CatalogSearchIndex catalogSearchIndex;
+    private final ObjectMapper objectMapper;
+    private final InventoryMetrics inventoryMetrics;
     
     public ItemDto createItem(CreateItemRequest request) {
         log.info("Creating new item with SKU: {}", request.getSku());
@@ -46,59 +72,141 @@ public class ItemService {
                 .isActive(true)
                 .build();
         
-        Item savedItem = itemRepository.save(item);
+        // Sequence ids defer the INSERT; flush so the creation timestamps are populated
+        Item savedItem = itemRepository.saveAndFlush(item);
         cacheService.evictItemCache(savedItem.getId());
-        cacheService.evictItemCache(savedItem.getSku());
         
         log.info("Item created successfully with ID: {}", savedItem.getId());
         return mapToDto(savedItem);
     }
     
-    @Cacheable(value = "items", key = "#id")
+    @Transactional(readOnly = true)
     public Optional<ItemDto> getItemById(Long id) {
-        log.debug("Fetching item by ID: {}", id);
-        return itemRepository.findById(id).map(this::mapToDto);
+        return itemCache.get(id, () -> loadItemById(id));
     }
     
-    @Cacheable(value = "items", key = "#sku")
+    @Transactional(readOnly = true)
     public Optional<ItemDto> getItemBySku(String sku) {
-        log.debug("Fetching item by SKU: {}", sku);
-        return itemRepository.findBySku(sku).map(this::mapToDto);
+        return itemCache.getBySku(sku, this::loadItemById, () -> {
+            log.debug("Resolving item ID for SKU: {}", sku);
+            return itemRepository.findIdBySku(sku);
+        });
+    }
+    
+    @Transactional(readOnly = true)
+    public CursorPage<ItemDto> getAllItems(long afterId, int size) {
+        log.debug("Fetching items after ID: {}", afterId);
+        int pageSize = pageSize(size);
+        return CursorPage.of(itemRepository.findPageAfter(afterId, PageRequest.of(0, pageSize + 1)),
+                pageSize, ItemDto::getId);
     }
     
-    public List<ItemDto> getAllItems() {
-        log.debug("Fetching all items");
-        return itemRepository.findAll().stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<ItemDto> getAvailableItems(long afterId, int size) {
+        log.debug("Fetching available items after ID: {}", afterId);
+        int pageSize = pageSize(size);
+        return CursorPage.of(itemRepository.findAvailablePageAfter(afterId, PageRequest.of(0, pageSize + 1)),
+                pageSize, ItemDto::getId);
     }
     
-    public List<ItemDto> getAvailableItems() {
-        log.debug("Fetching available items");
-        return itemRepository.findAvailableItems().stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<ItemDto> getItemsByCategory(String category, long afterId, int size) {
+        log.debug("Fetching items by category: {} after ID: {}", category, afterId);
+        int pageSize = pageSize(size);
+        return CursorPage.of(itemRepository.findByCategoryPageAfter(category, afterId, PageRequest.of(0, pageSize + 1)),
+                pageSize, ItemDto::getId);
     }
     
-    public List<ItemDto> getItemsByCategory(String category) {
-        log.debug("Fetching items by category: {}", category);
-        return itemRepository.findByCategory(category).stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public CursorPage<ItemDto> getItemsByBrand(String brand, long afterId, int size) {
+        log.debug("Fetching items by brand: {} after ID: {}", brand, afterId);
+        int pageSize = pageSize(size);
+        return CursorPage.of(itemRepository.findByBrandPageAfter(brand, afterId, PageRequest.of(0, pageSize + 1)),
+                pageSize, ItemDto::getId);
     }
     
-    public List<ItemDto> getItemsByBrand(String brand) {
-        log.debug("Fetching items by brand: {}", brand);
-        return itemRepository.findByBrand(brand).stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+    /**
+     * Filters the catalog on the facet index and loads only the page's items, with one query.
+     *
+     * @return empty until the facet index has been built
+     */
+    @Transactional(readOnly = true)
+    public Optional<CatalogPage> browseItems(CatalogFilter filter, long afterId, int size) {
+        if (!catalogFacetIndex.isReady()) {
+            return Optional.empty();
+        }
+        int pageSize = pageSize(size);
+        CatalogFacetIndex.Selection selection = catalogFacetIndex.select(filter, afterId, pageSize + 1);
+        boolean hasNext = selection.itemIds().size() > pageSize;
+        List<Long> ids = hasNext ? selection.itemIds().subList(0, pageSize) : selection.itemIds();
+        List<ItemDto> items = ids.isEmpty() ? List.of() : itemRepository.findDtosByIds(ids);
+        return Optional.of(CatalogPage.builder()
+                .items(items)
+                .nextCursor(hasNext ? CursorPage.encodeCursor(ids.get(pageSize - 1)) : null)
+                .total(selection.total())
+                .facets(selection.facets())
+                .build());
+    }
+    
+    /**
+     * Full-text search over active items, best match first. Ranking comes from the search index,
+     * the items themselves are loaded with one query.
+     *
+     * @return empty until the search index has been built
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<ItemSearchHit>> searchItems(String text, int limit) {
+        if (!catalogSearchIndex.isReady()) {
+            return Optional.empty();
+        }
+        List<CatalogSearchIndex.Hit> hits = catalogSearchIndex.search(text,
+                Math.max(1, Math.min(limit, MAX_SEARCH_RESULTS)));
+        if (hits.isEmpty()) {
+            return Optional.of(List.of());
+        }
+        Map<Long, ItemDto> items = new HashMap<>();
+        for (ItemDto item : itemRepository.findDtosByIds(hits.stream().map(CatalogSearchIndex.Hit::itemId).toList())) {
+            items.put(item.getId(), item);
+        }
+        // Items deleted since the last index refresh are left out
+        return Optional.of(hits.stream()
+                .filter(hit -> items.containsKey(hit.itemId()))
+                .map(hit -> new ItemSearchHit(items.get(hit.itemId()), hit.score()))
+                .toList());
+    }
+    
+    /**
+     * Writes the whole catalog as newline-delimited JSON, one item per line in id order. Items are
+     * read as DTOs through a forward-only cursor, so memory use does not grow with the catalog.
+     *
+     * @return number of items written
+     */
+    @Transactional(readOnly = true)
+    public long exportItems(OutputStream out) throws IOException {
+        log.info("Exporting item catalog");
+        long count = 0;
+        try (Stream<ItemDto> items = itemRepository.streamAllOrderById();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                     .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false)) {
+            // Lines are ended explicitly; the default separator would indent every line after the first
+            generator.setRootValueSeparator(null);
+            Iterator<ItemDto> iterator = items.iterator();
+            while (iterator.hasNext()) {
+                generator.writeObject(iterator.next());
+                generator.writeRaw('\n');
+                count++;
+            }
+        }
+        log.info("Exported {} items", count);
+        return count;
     }
     
     @Transactional
     public ItemDto addSupply(Long itemId, Integer quantity) {
         log.info("Adding supply for item ID: {} with quantity: {}", itemId, quantity);
         
-        Optional<Item> itemOpt = itemRepository.findByIdWithLock(itemId);
+        Optional<Item> itemOpt = inventoryMetrics.timeLockWait(InventoryMetrics.LockOperation.SUPPLY,
+                () -> itemRepository.findByIdWithLock(itemId));
         if (itemOpt.isEmpty()) {
             throw new IllegalArgumentException("Item not found with ID: " + itemId);
         }
@@ -106,10 +214,10 @@ public class ItemService {
         Item item = itemOpt.get();
         item.addSupply(quantity);
         Item savedItem = itemRepository.save(item);
+        stockLedger.onSupply(savedItem.getId(), quantity, savedItem);
         
         // Evict cache
         cacheService.evictItemCache(itemId);
-        cacheService.evictItemCache(item.getSku());
         
         log.info("Supply added successfully. New available quantity: {}", savedItem.getAvailableQuantity());
         return mapToDto(savedItem);
@@ -119,7 +227,8 @@ public class ItemService {
     public ItemDto addSupplyBySku(String sku, Integer quantity) {
         log.info("Adding supply for item SKU: {} with quantity: {}", sku, quantity);
         
-        Optional<Item> itemOpt = itemRepository.findBySkuWithLock(sku);
+        Optional<Item> itemOpt = inventoryMetrics.timeLockWait(InventoryMetrics.LockOperation.SUPPLY,
+                () -> itemRepository.findBySkuWithLock(sku));
         if (itemOpt.isEmpty()) {
             throw new IllegalArgumentException("Item not found with SKU: " + sku);
         }
@@ -127,10 +236,10 @@ public class ItemService {
         Item item = itemOpt.get();
         item.addSupply(quantity);
         Item savedItem = itemRepository.save(item);
+        stockLedger.onSupply(savedItem.getId(), quantity, savedItem);
         
         // Evict cache
         cacheService.evictItemCache(item.getId());
-        cacheService.evictItemCache(sku);
         
         log.info("Supply added successfully. New available quantity: {}", savedItem.getAvailableQuantity());
         return mapToDto(savedItem);
@@ -160,12 +269,63 @@ public class ItemService {
         return item.isActive() && item.hasAvailableQuantity(quantity);
     }
     
+    /**
+     * Answers many availability checks with one projection query. Quantities asked for the same
+     * item are added up, so an item listed on two cart lines needs stock for both. Items held by
+     * the stock ledger are judged by its counters, which lead the items table.
+     */
+    @Transactional(readOnly = true)
+    public AvailabilityResult checkAvailability(AvailabilityRequest request) {
+        Map<Long, Long> byId = new LinkedHashMap<>();
+        Map<String, Long> bySku = new LinkedHashMap<>();
+        for (AvailabilityRequest.Line line : request.getLines()) {
+            if (line.getItemId() != null) {
+                byId.merge(line.getItemId(), line.getQuantity().longValue(), Long::sum);
+            } else {
+                bySku.merge(line.getSku(), line.getQuantity().longValue(), Long::sum);
+            }
+        }
+        log.debug("Checking availability for {} item IDs and {} SKUs", byId.size(), bySku.size());
+        
+        Map<Long, ItemRepository.AvailabilityView> itemsById = new HashMap<>();
+        Map<String, ItemRepository.AvailabilityView> itemsBySku = new HashMap<>();
+        for (ItemRepository.AvailabilityView item : itemRepository.findAvailability(byId.keySet(), bySku.keySet())) {
+            itemsById.put(item.getId(), item);
+            itemsBySku.put(item.getSku(), item);
+        }
+        Map<Long, Boolean> items = new LinkedHashMap<>();
+        byId.forEach((id, quantity) -> items.put(id, isAvailable(itemsById.get(id), quantity)));
+        Map<String, Boolean> skus = new LinkedHashMap<>();
+        bySku.forEach((sku, quantity) -> skus.put(sku, isAvailable(itemsBySku.get(sku), quantity)));
+        return AvailabilityResult.builder()
+                .items(items)
+                .skus(skus)
+                .build();
+    }
+    
     @CacheEvict(value = "items", allEntries = true)
     public void evictAllItemCache() {
         log.debug("Evicting all item cache");
     }
     
-    private ItemDto mapToDto(Item item) {
+    private Optional<ItemDto> loadItemById(Long id) {
+        log.debug("Fetching item by ID: {}", id);
+        return itemRepository.findDtoById(id);
+    }
+    
+    private boolean isAvailable(ItemRepository.AvailabilityView item, long quantity) {
+        if (item == null || !Boolean.TRUE.equals(item.getActive())) {
+            return false;
+        }
+        Integer tracked = stockLedger.getAvailableQuantity(item.getId());
+        return (tracked != null ? tracked : item.getAvailableQuantity()) >= quantity;
+    }
+    
+    private static int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
+    }
+    
+    public static ItemDto mapToDto(Item item) {
         return ItemDto.builder()
                 .id(item.getId())
                 .name(item.getName())
@@ -0,0 +1,175 @@
+package com.example.inventory.service;
+
+import com.example.inventory.dto.BulkImportResult;
+import com.example.inventory.dto.BulkSupplyResult;
+import com.example.inventory.dto.SupplyLine;
+import com.example.inventory.repository.ItemRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Applies a warehouse receiving feed in one request.
+ * <p>
+ * Lines are validated and summed per SKU in memory, then applied in SKU chunks, each in its own
+ * transaction: the chunk's rows are locked in id order with one query and updated with one JDBC
+ * batch. A chunk that fails is reported per SKU and does not undo the chunks before it. Cache
+ * entries of each committed chunk are evicted in one batch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ItemSupplyService {
+
+    static final int CHUNK_SIZE = 1000;
+
+    private static final String ADD_SUPPLY_SQL = "UPDATE items SET available_quantity = available_quantity + ?, "
+            + "version = version + 1, updated_at = ? WHERE id = ?";
+
+    private final ItemRepository itemRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final StockLedger stockLedger;
+    private final CacheService cacheService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Applies CSV with a {@code sku,quantity} header row.
+     */
+    public BulkSupplyResult supplyCsv(InputStream in) throws IOException {
+        List<BulkImportResult.RowError> errors = new ArrayList<>();
+        return supply(BulkRecords.readCsv(in, SupplyLine.class, errors), errors);
+    }
+
+    /**
+     * Applies newline-delimited JSON, one {@link SupplyLine} per line. Blank lines are skipped.
+     */
+    public BulkSupplyResult supplyNdjson(InputStream in) throws IOException {
+        List<BulkImportResult.RowError> errors = new ArrayList<>();
+        return supply(BulkRecords.readNdjson(objectMapper, in, SupplyLine.class, errors), errors);
+    }
+
+    private BulkSupplyResult supply(List<BulkRecords.Parsed<SupplyLine>> lines,
+                                    List<BulkImportResult.RowError> errors) {
+        int received = lines.size() + errors.size();
+        List<Map.Entry<String, Long>> totals = new ArrayList<>(aggregate(lines, errors).entrySet());
+        List<BulkSupplyResult.SkuResult> results = new ArrayList<>(totals.size());
+        for (int from = 0; from < totals.size(); from += CHUNK_SIZE) {
+            results.addAll(applyChunk(totals.subList(from, Math.min(from + CHUNK_SIZE, totals.size()))));
+        }
+        errors.sort((a, b) -> Integer.compare(a.getRow(), b.getRow()));
+        int applied = (int) results.stream().filter(BulkSupplyResult.SkuResult::isApplied).count();
+        log.info("Applied supply for {} of {} SKUs from {} lines, {} lines rejected",
+                applied, results.size(), received, errors.size());
+        return BulkSupplyResult.builder()
+                .received(received)
+                .applied(applied)
+                .results(results)
+                .errors(errors)
+                .build();
+    }
+
+    // Sorted by SKU so chunks, and the row locks taken within them, follow a stable order
+    private TreeMap<String, Long> aggregate(List<BulkRecords.Parsed<SupplyLine>> lines,
+                                            List<BulkImportResult.RowError> errors) {
+        TreeMap<String, Long> totals = new TreeMap<>();
+        for (BulkRecords.Parsed<SupplyLine> line : lines) {
+            SupplyLine supply = line.value();
+            Set<ConstraintViolation<SupplyLine>> violations = validator.validate(supply);
+            if (!violations.isEmpty()) {
+                errors.add(new BulkImportResult.RowError(line.row(), supply.getSku(), violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; "))));
+            } else {
+                totals.merge(supply.getSku(), supply.getQuantity().longValue(), Long::sum);
+            }
+        }
+        return totals;
+    }
+
+    private List<BulkSupplyResult.SkuResult> applyChunk(List<Map.Entry<String, Long>> chunk) {
+        Map<String, Integer> quantities = new HashMap<>();
+        Map<String, String> rejected = new HashMap<>();
+        for (Map.Entry<String, Long> total : chunk) {
+            if (total.getValue() > Integer.MAX_VALUE) {
+                rejected.put(total.getKey(), "Total quantity exceeds " + Integer.MAX_VALUE);
+            } else {
+                quantities.put(total.getKey(), total.getValue().intValue());
+            }
+        }
+        Map<String, Long> updated = Map.of();
+        if (!quantities.isEmpty()) {
+            try {
+                updated = transactionTemplate.execute(status -> update(quantities));
+            } catch (DataAccessException | TransactionException e) {
+                log.error("Failed to apply supply for {} SKUs", quantities.size(), e);
+                quantities.keySet().forEach(sku -> rejected.put(sku, "Not applied: " + e.getMessage()));
+            }
+            if (!updated.isEmpty()) {
+                evict(updated.values());
+            }
+        }
+        List<BulkSupplyResult.SkuResult> results = new ArrayList<>(chunk.size());
+        for (Map.Entry<String, Long> total : chunk) {
+            String sku = total.getKey();
+            String message = rejected.containsKey(sku) ? rejected.get(sku)
+                    : updated.containsKey(sku) ? null : "Item not found with SKU: " + sku;
+            results.add(new BulkSupplyResult.SkuResult(sku, total.getValue(), message == null, message));
+        }
+        return results;
+    }
+
+    // The supply is committed by now; entries that survive a failed eviction expire with the cache TTL
+    private void evict(Collection<Long> itemIds) {
+        try {
+            cacheService.evictItemCaches(itemIds);
+        } catch (RuntimeException e) {
+            log.warn("Failed to evict item cache for {} items: {}", itemIds.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Locks and updates the chunk's items.
+     *
+     * @return ids of the updated items by SKU
+     */
+    private Map<String, Long> update(Map<String, Integer> quantities) {
+        List<ItemRepository.SupplyTarget> targets = itemRepository.lockSupplyTargets(quantities.keySet());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batch = new ArrayList<>(targets.size());
+        Map<String, Long> updated = new HashMap<>();
+        for (ItemRepository.SupplyTarget target : targets) {
+            int quantity = quantities.get(target.getSku());
+            batch.add(new Object[] {quantity, now, target.getId()});
+            updated.put(target.getSku(), target.getId());
+            // The rows are locked, so the version each one commits with is known
+            if (target.getVersion() != null) {
+                stockLedger.onSupply(target.getId(), quantity, target.getVersion() + 1);
+            }
+        }
+        jdbcTemplate.batchUpdate(ADD_SUPPLY_SQL, batch);
+        return updated;
+    }
+}
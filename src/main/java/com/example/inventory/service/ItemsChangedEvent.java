@@ -0,0 +1,19 @@
+package com.example.inventory.service;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Published when items are created or their stored fields change. In-memory indexes over the
+ * catalog listen for it after the publishing transaction commits and re-read the items.
+ */
+public record ItemsChangedEvent(Collection<Long> itemIds) {
+
+    public ItemsChangedEvent {
+        itemIds = List.copyOf(itemIds);
+    }
+
+    public static ItemsChangedEvent of(Long itemId) {
+        return new ItemsChangedEvent(List.of(itemId));
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.inventory.service;
+
+import com.example.inventory.config.ReservationProperties;
+import com.example.inventory.dto.ReservationRequest;
+import com.example.inventory.entity.Item;
+import com.example.inventory.entity.Reservation;
+import com.example.inventory.repository.ItemRepository;
+import com.example.inventory.repository.ReservationRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Group commit for reservations on the same item, used when {@code app.reservation.mode=coalesced}.
+ * <p>
+ * Requests arriving for an item within the configured window are collected into one batch.
+ * The batch takes the item row lock once, applies the reservations that fit in arrival order,
+ * inserts them together and then completes each caller's future with its own result, so
+ * accept/reject outcomes are the same as if the requests had run one by one.
+ */
+@Component
+@Slf4j
+public class ReservationCoalescer {
+
+    private final ItemRepository itemRepository;
+    private final ReservationRepository reservationRepository;
+    private final CacheService cacheService;
+    private final TransactionTemplate transactionTemplate;
+    private final ReservationProperties.Coalescing properties;
+    private final InventoryMetrics inventoryMetrics;
+    private final ConcurrentMap<Long, Batch> openBatches = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService executor;
+
+    public ReservationCoalescer(ItemRepository itemRepository, ReservationRepository reservationRepository,
+                                CacheService cacheService, TransactionTemplate transactionTemplate,
+                                ReservationProperties reservationProperties, InventoryMetrics inventoryMetrics) {
+        this.itemRepository = itemRepository;
+        this.reservationRepository = reservationRepository;
+        this.cacheService = cacheService;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = reservationProperties.getCoalescing();
+        this.inventoryMetrics = inventoryMetrics;
+        this.executor = Executors.newScheduledThreadPool(properties.getWorkers(), new CoalescerThreadFactory());
+    }
+
+    /**
+     * Submits the request to the current batch for its item and waits for the batch to commit.
+     * Must be called outside a transaction so waiting callers do not hold pooled connections.
+     * Gives up after {@code app.reservation.coalescing.timeout-ms}. A request that times out before
+     * its batch is drained is left out of the batch; one whose batch commits after the timeout is
+     * cancelled again, so a refused caller never holds stock.
+     */
+    public Reservation reserve(ReservationRequest request) {
+        try {
+            return submit(request).orTimeout(properties.getTimeoutMs(), TimeUnit.MILLISECONDS).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new IllegalStateException("Timed out waiting for reservation batch on item "
+                        + request.getItemId(), e.getCause());
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public CompletableFuture<Reservation> submit(ReservationRequest request) {
+        PendingReservation pending = new PendingReservation(request, new CompletableFuture<>());
+        Long itemId = request.getItemId();
+        while (true) {
+            Batch batch = openBatches.computeIfAbsent(itemId, Batch::new);
+            int size = batch.add(pending);
+            try {
+                if (size == 1) {
+                    executor.schedule(() -> drain(batch), properties.getWindowMicros(), TimeUnit.MICROSECONDS);
+                } else if (size == properties.getMaxBatchSize()) {
+                    executor.execute(() -> drain(batch));
+                }
+            } catch (RejectedExecutionException e) {
+                // Shutting down: nothing will drain this batch, so fail everyone already in it
+                openBatches.remove(itemId, batch);
+                IllegalStateException failure = new IllegalStateException("Reservation coalescer is shut down", e);
+                batch.close().forEach(p -> p.future().completeExceptionally(failure));
+            }
+            if (size > 0) {
+                return pending.future();
+            }
+            // The batch was drained between lookup and add; retry with a fresh one
+            openBatches.remove(itemId, batch);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void drain(Batch batch) {
+        openBatches.remove(batch.itemId, batch);
+        // Callers that already timed out have been refused, so their requests are dropped
+        List<PendingReservation> pending = batch.close().stream().filter(p -> !p.future().isDone()).toList();
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Object> outcomes;
+        try {
+            outcomes = transactionTemplate.execute(status -> apply(batch.itemId, pending));
+        } catch (Throwable e) {
+            // Errors too: callers would otherwise wait on futures nobody completes
+            log.warn("Coalesced reservation batch of {} for item ID: {} failed", pending.size(), batch.itemId, e);
+            pending.forEach(p -> p.future().completeExceptionally(e));
+            return;
+        }
+        for (int i = 0; i < pending.size(); i++) {
+            Object outcome = outcomes.get(i);
+            if (outcome instanceof Reservation reservation) {
+                if (!pending.get(i).future().complete(reservation)) {
+                    cancelAbandoned(reservation);
+                }
+            } else {
+                pending.get(i).future().completeExceptionally((RuntimeException) outcome);
+            }
+        }
+    }
+
+    // The caller timed out while its batch was committing and was told the reservation failed
+    private void cancelAbandoned(Reservation committed) {
+        Long itemId = committed.getItem().getId();
+        try {
+            transactionTemplate.executeWithoutResult(status -> reservationRepository.findById(committed.getId())
+                    .filter(reservation -> reservation.getStatus() == Reservation.ReservationStatus.ACTIVE)
+                    .ifPresent(reservation -> {
+                        if (itemRepository.releaseReservedQuantity(itemId, reservation.getQuantity()) == 0) {
+                            throw new IllegalStateException("Insufficient reserved quantity for item ID: " + itemId);
+                        }
+                        reservation.cancel();
+                        reservationRepository.save(reservation);
+                    }));
+            cacheService.evictItemCache(itemId);
+            log.info("Cancelled reservation ID: {} whose caller timed out", committed.getId());
+        } catch (RuntimeException e) {
+            log.error("Failed to cancel reservation ID: {} whose caller timed out; it is left to expire",
+                    committed.getId(), e);
+        }
+    }
+
+    // Returns one Reservation or exception per pending request, in arrival order
+    private List<Object> apply(Long itemId, List<PendingReservation> pending) {
+        List<Object> outcomes = new ArrayList<>(pending.size());
+        Optional<Item> itemOpt = inventoryMetrics.timeLockWait(InventoryMetrics.LockOperation.COALESCED,
+                () -> itemRepository.findByIdWithLock(itemId));
+        if (itemOpt.isEmpty()) {
+            pending.forEach(p -> outcomes.add(new IllegalArgumentException("Item not found")));
+            return outcomes;
+        }
+        Item item = itemOpt.get();
+        List<Reservation> accepted = new ArrayList<>(pending.size());
+        for (PendingReservation p : pending) {
+            ReservationRequest request = p.request();
+            if (!item.isActive() || !item.hasAvailableQuantity(request.getQuantity())) {
+                outcomes.add(new IllegalStateException("Insufficient inventory or item inactive"));
+                continue;
+            }
+            item.reserveQuantity(request.getQuantity());
+            Reservation reservation = ReservationService.buildReservation(item, request.getCustomerId(),
+                    request.getQuantity(), request.getExpirationMinutes());
+            accepted.add(reservation);
+            outcomes.add(reservation);
+        }
+        if (!accepted.isEmpty()) {
+            itemRepository.save(item);
+            reservationRepository.saveAll(accepted);
+            cacheService.evictItemCache(itemId);
+        }
+        log.debug("Applied coalesced batch for item ID: {} ({} accepted of {})", itemId, accepted.size(), pending.size());
+        return outcomes;
+    }
+
+    private record PendingReservation(ReservationRequest request, CompletableFuture<Reservation> future) {
+    }
+
+    private static final class Batch {
+
+        private final Long itemId;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final List<PendingReservation> pending = new ArrayList<>();
+        private boolean closed;
+
+        private Batch(Long itemId) {
+            this.itemId = itemId;
+        }
+
+        // Returns the new batch size, or 0 if the batch is already closed
+        private int add(PendingReservation reservation) {
+            lock.lock();
+            try {
+                if (closed) {
+                    return 0;
+                }
+                pending.add(reservation);
+                return pending.size();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private List<PendingReservation> close() {
+            lock.lock();
+            try {
+                if (closed) {
+                    return List.of();
+                }
+                closed = true;
+                return pending;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private static final class CoalescerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "reservation-coalescer-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.inventory.service;
+
+import com.example.inventory.config.ReservationProperties;
+import com.example.inventory.entity.Reservation;
+import com.example.inventory.repository.ItemRepository;
+import com.example.inventory.repository.ReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Releases stock held by expired reservations.
+ * <p>
+ * Expired rows are claimed in bounded chunks, each in its own short transaction. Within a chunk
+ * the released quantity is summed per item and returned with one guarded UPDATE per item, taken
+ * in item id order, instead of loading and saving every item.
+ */
+@Component
+@Slf4j
+public class ReservationExpirySweeper {
+
+    private final ReservationRepository reservationRepository;
+    private final ItemRepository itemRepository;
+    private final CacheService cacheService;
+    private final StockLedger stockLedger;
+    private final ReservationProperties reservationProperties;
+    private final TransactionTemplate transactionTemplate;
+    private final Timer sweepTimer;
+    private final Counter expiredCounter;
+    private final Counter releasedCounter;
+    private final ReentrantLock sweepLock = new ReentrantLock();
+
+    public ReservationExpirySweeper(ReservationRepository reservationRepository, ItemRepository itemRepository,
+                                    CacheService cacheService, StockLedger stockLedger,
+                                    ReservationProperties reservationProperties,
+                                    TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.reservationRepository = reservationRepository;
+        this.itemRepository = itemRepository;
+        this.cacheService = cacheService;
+        this.stockLedger = stockLedger;
+        this.reservationProperties = reservationProperties;
+        this.transactionTemplate = transactionTemplate;
+        this.sweepTimer = Timer.builder("inventory.reservations.expiry.sweep")
+                .description("Duration of one expiry sweep")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("inventory.reservations.expired")
+                .description("Reservations expired by the sweeper")
+                .register(meterRegistry);
+        this.releasedCounter = Counter.builder("inventory.reservations.expiry.released")
+                .description("Stock returned to items by expired reservations")
+                .baseUnit("items")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.reservation.expiry.sweep-interval-ms:30000}",
+            initialDelayString = "${app.reservation.expiry.sweep-interval-ms:30000}")
+    public void scheduledSweep() {
+        if (reservationProperties.getExpiry().isEnabled()) {
+            sweep();
+        }
+    }
+
+    /**
+     * Expires everything that is due now, chunk by chunk.
+     *
+     * @return number of reservations expired
+     */
+    public int sweep() {
+        if (!sweepLock.tryLock()) {
+            log.debug("Expiry sweep already running, skipping");
+            return 0;
+        }
+        try {
+            return sweepTimer.record(this::sweepChunks);
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    /**
+     * Expires the given reservations if they are still active and past their expiry time.
+     * Used by {@link ReservationExpiryWheel} to release exactly the reservations that came due.
+     *
+     * @return number of reservations expired
+     */
+    public int expireReservations(Collection<Long> reservationIds) {
+        List<Long> ids = reservationIds.stream().sorted().distinct().toList();
+        int chunkSize = reservationProperties.getExpiry().getChunkSize();
+        LocalDateTime now = LocalDateTime.now();
+        return sweepTimer.record(() -> {
+            int total = 0;
+            for (int from = 0; from < ids.size(); from += chunkSize) {
+                List<Long> chunk = ids.subList(from, Math.min(from + chunkSize, ids.size()));
+                total += expireChunk(() -> reservationRepository.findExpiredReservationsByIdForUpdate(chunk, now));
+            }
+            return total;
+        });
+    }
+
+    private int sweepChunks() {
+        ReservationProperties.Expiry expiry = reservationProperties.getExpiry();
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest chunkRequest = PageRequest.of(0, expiry.getChunkSize());
+        int total = 0;
+        for (int chunk = 0; chunk < expiry.getMaxChunksPerSweep(); chunk++) {
+            int expired = expireChunk(() -> reservationRepository.findExpiredReservationsForUpdate(now, chunkRequest));
+            total += expired;
+            if (expired < expiry.getChunkSize()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Expired {} reservations", total);
+        }
+        return total;
+    }
+
+    private int expireChunk(Supplier<List<Reservation>> claim) {
+        Map<Long, Integer> released = new TreeMap<>();
+        Integer expired = transactionTemplate.execute(status -> {
+            List<Reservation> claimed = claim.get();
+            for (Reservation reservation : claimed) {
+                reservation.markAsExpired();
+                // getId() on the lazy item proxy does not load the item
+                released.merge(reservation.getItem().getId(), reservation.getQuantity(), Integer::sum);
+            }
+            released.forEach(this::releaseStock);
+            return claimed.size();
+        });
+        released.keySet().forEach(cacheService::evictItemCache);
+        expiredCounter.increment(expired);
+        released.values().forEach(releasedCounter::increment);
+        return expired;
+    }
+
+    private void releaseStock(Long itemId, Integer quantity) {
+        if (reservationProperties.getMode() == ReservationProperties.Mode.LEDGER) {
+            stockLedger.release(itemId, quantity);
+            return;
+        }
+        if (itemRepository.releaseReservedQuantity(itemId, quantity) == 0) {
+            throw new IllegalStateException("Insufficient reserved quantity for item ID: " + itemId);
+        }
+    }
+}
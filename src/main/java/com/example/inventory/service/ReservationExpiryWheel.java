@@ -0,0 +1,132 @@
+package com.example.inventory.service;
+
+import com.example.inventory.config.ReservationProperties;
+import com.example.inventory.entity.Reservation;
+import com.example.inventory.repository.ReservationRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fires reservation expiry at each reservation's {@code expiresAt} instead of waiting for the next sweep.
+ * <p>
+ * New reservations are queued lock-free by request threads and moved into a {@link TimingWheel}
+ * by the single ticker thread, which also collects everything that came due during the tick and
+ * expires it in one batch through {@link ReservationExpirySweeper}. The wheel is rebuilt from
+ * ACTIVE rows at startup; the periodic sweep remains as a safety net.
+ */
+@Component
+@Slf4j
+public class ReservationExpiryWheel {
+
+    private final ReservationRepository reservationRepository;
+    private final ReservationExpirySweeper reservationExpirySweeper;
+    private final ReservationProperties.Expiry.Wheel properties;
+    private final Queue<Pending> inbox = new ConcurrentLinkedQueue<>();
+    private final TimingWheel<Long> wheel;
+    private ScheduledExecutorService ticker;
+
+    public ReservationExpiryWheel(ReservationRepository reservationRepository,
+                                  ReservationExpirySweeper reservationExpirySweeper,
+                                  ReservationProperties reservationProperties) {
+        this.reservationRepository = reservationRepository;
+        this.reservationExpirySweeper = reservationExpirySweeper;
+        this.properties = reservationProperties.getExpiry().getWheel();
+        this.wheel = new TimingWheel<>(properties.getTickMs(), properties.getWheelSize(), System.currentTimeMillis());
+    }
+
+    public void schedule(Reservation reservation) {
+        if (properties.isEnabled() && reservation != null && reservation.getExpiresAt() != null) {
+            inbox.add(new Pending(reservation.getId(), toEpochMilli(reservation.getExpiresAt())));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        rebuild();
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reservation-expiry-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> tick(System.currentTimeMillis()),
+                properties.getTickMs(), properties.getTickMs(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    // Runs on the ticker thread only
+    void tick(long nowMs) {
+        List<Long> due = new ArrayList<>();
+        Pending pending;
+        while ((pending = inbox.poll()) != null) {
+            if (!wheel.add(pending.reservationId(), pending.expiresAtMs())) {
+                due.add(pending.reservationId());
+            }
+        }
+        wheel.advance(nowMs, due::add);
+        if (due.isEmpty()) {
+            return;
+        }
+        try {
+            int expired = reservationExpirySweeper.expireReservations(due);
+            log.debug("Expiry wheel fired {} reservations, {} expired", due.size(), expired);
+        } catch (RuntimeException e) {
+            // Left to the periodic sweep
+            log.error("Failed to expire {} reservations from the expiry wheel", due.size(), e);
+        }
+    }
+
+    int size() {
+        return wheel.size() + inbox.size();
+    }
+
+    private void rebuild() {
+        int pageSize = properties.getRebuildPageSize();
+        long afterId = 0;
+        int loaded = 0;
+        while (true) {
+            List<ReservationRepository.ExpiryView> page =
+                    reservationRepository.findActiveExpiriesAfter(afterId, PageRequest.of(0, pageSize));
+            for (ReservationRepository.ExpiryView view : page) {
+                if (view.getExpiresAt() != null) {
+                    inbox.add(new Pending(view.getId(), toEpochMilli(view.getExpiresAt())));
+                    loaded++;
+                }
+            }
+            if (page.size() < pageSize) {
+                break;
+            }
+            afterId = page.get(page.size() - 1).getId();
+        }
+        log.info("Rebuilt reservation expiry wheel with {} active reservations", loaded);
+    }
+
+    private static long toEpochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private record Pending(Long reservationId, long expiresAtMs) {
+    }
+}
@@ -1,31 +1,73 @@
 package com.example.inventory.service;
 
+import com.example.inventory.config.ReservationProperties;
+import com.example.inventory.dto.CartReservationRequest;
+import com.example.inventory.dto.CursorPage;
+import com.example.inventory.dto.ReservationDto;
 import com.example.inventory.dto.ReservationRequest;
 import com.example.inventory.entity.Item;
 import com.example.inventory.entity.Reservation;
 import com.example.inventory.repository.ItemRepository;
 import com.example.inventory.repository.ReservationRepository;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ReservationService {
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
     private final ReservationRepository reservationRepository;
     private final ItemRepository itemRepository;
     private final CacheService cacheService;
+    private final StockLedger stockLedger;
+    private final ReservationProperties reservationProperties;
+    private final ReservationCoalescer reservationCoalescer;
+    private final TransactionTemplate transactionTemplate;
+    private final ReservationExpirySweeper reservationExpirySweeper;
+    private final ReservationExpiryWheel reservationExpiryWheel;
+    private final InventoryMetrics inventoryMetrics;
 
-    @Transactional
+    // Transactions are demarcated per mode: coalesced callers must not hold a connection while waiting.
+    // Timed outside them, so commit time and conflicts raised at commit are included.
     public Reservation createReservation(ReservationRequest request) {
+        ReservationProperties.Mode mode = reservationProperties.getMode();
+        long started = System.nanoTime();
+        try {
+            Reservation saved = switch (mode) {
+                case LEDGER -> transactionTemplate.execute(status -> createReservationWithLedger(request));
+                case CONDITIONAL_UPDATE -> transactionTemplate.execute(status -> createReservationWithConditionalUpdate(request));
+                case COALESCED -> reservationCoalescer.reserve(request);
+                case LOCKED -> transactionTemplate.execute(status -> createReservationWithLock(request));
+            };
+            reservationExpiryWheel.schedule(saved);
+            inventoryMetrics.recordCreate(mode, InventoryMetrics.Outcome.SUCCESS, System.nanoTime() - started);
+            return saved;
+        } catch (RuntimeException e) {
+            inventoryMetrics.recordCreate(mode, InventoryMetrics.Outcome.of(e), System.nanoTime() - started);
+            throw e;
+        }
+    }
+
+    private Reservation createReservationWithLock(ReservationRequest request) {
         // Lock the item for concurrency
-        Item item = itemRepository.findByIdWithLock(request.getItemId())
+        Item item = inventoryMetrics.timeLockWait(InventoryMetrics.LockOperation.RESERVE,
+                        () -> itemRepository.findByIdWithLock(request.getItemId()))
                 .orElseThrow(() -> new IllegalArgumentException("Item not found"));
         if (!item.isActive() || !item.hasAvailableQuantity(request.getQuantity())) {
             throw new IllegalStateException("Insufficient inventory or item inactive");
@@ -33,21 +75,105 @@ public class ReservationService {
         // Reserve quantity
         item.reserveQuantity(request.getQuantity());
         itemRepository.save(item);
-        // Create reservation
-        Reservation reservation = Reservation.builder()
+        Reservation saved = saveReservation(item, request);
+        cacheService.evictItemCache(item.getId());
+        return saved;
+    }
+
+    // Admission happens in memory; the item row is written behind by the ledger flusher
+    private Reservation createReservationWithLedger(ReservationRequest request) {
+        stockLedger.reserve(request.getItemId(), request.getQuantity());
+        Item item = itemRepository.getReferenceById(request.getItemId());
+        return saveReservation(item, request);
+    }
+
+    // Single guarded UPDATE instead of read-lock, mutate and save
+    private Reservation createReservationWithConditionalUpdate(ReservationRequest request) {
+        if (itemRepository.reserveQuantityIfAvailable(request.getItemId(), request.getQuantity()) == 0) {
+            if (!itemRepository.existsById(request.getItemId())) {
+                throw new IllegalArgumentException("Item not found");
+            }
+            throw new IllegalStateException("Insufficient inventory or item inactive");
+        }
+        Item item = itemRepository.getReferenceById(request.getItemId());
+        Reservation saved = saveReservation(item, request);
+        cacheService.evictItemCache(item.getId());
+        return saved;
+    }
+
+    private Reservation saveReservation(Item item, ReservationRequest request) {
+        return reservationRepository.save(buildReservation(item, request.getCustomerId(),
+                request.getQuantity(), request.getExpirationMinutes()));
+    }
+
+    static Reservation buildReservation(Item item, String customerId, Integer quantity, Integer expirationMinutes) {
+        return Reservation.builder()
                 .item(item)
-                .customerId(request.getCustomerId())
-                .quantity(request.getQuantity())
+                .customerId(customerId)
+                .quantity(quantity)
                 .status(Reservation.ReservationStatus.ACTIVE)
-                .expiresAt(LocalDateTime.now().plusMinutes(request.getExpirationMinutes() != null ? request.getExpirationMinutes() : 30))
+                .expiresAt(LocalDateTime.now().plusMinutes(expirationMinutes != null ? expirationMinutes : 30))
                 .build();
-        Reservation saved = reservationRepository.save(reservation);
-        cacheService.evictItemCache(item.getId());
-        return saved;
     }
 
+    // Reserves every cart line or none of them
     @Transactional
+    public List<Reservation> createReservations(CartReservationRequest request) {
+        // Sorted by item id so overlapping carts always lock rows in the same order
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (CartReservationRequest.CartLine line : request.getLines()) {
+            quantities.merge(line.getItemId(), line.getQuantity(), Integer::sum);
+        }
+        Map<Long, Item> items = reserveCart(quantities);
+
+        List<Reservation> reservations = new ArrayList<>(request.getLines().size());
+        for (CartReservationRequest.CartLine line : request.getLines()) {
+            reservations.add(buildReservation(items.get(line.getItemId()), request.getCustomerId(),
+                    line.getQuantity(), request.getExpirationMinutes()));
+        }
+        List<Reservation> saved = reservationRepository.saveAll(reservations);
+        items.keySet().forEach(cacheService::evictItemCache);
+        // A rolled back cart leaves entries behind that find nothing to expire
+        saved.forEach(reservationExpiryWheel::schedule);
+        return saved;
+    }
+
+    private Map<Long, Item> reserveCart(Map<Long, Integer> quantities) {
+        if (reservationProperties.getMode() == ReservationProperties.Mode.LEDGER) {
+            // Rolled back in the ledger if a later line fails
+            quantities.forEach(stockLedger::reserve);
+            return quantities.keySet().stream()
+                    .collect(Collectors.toMap(Function.identity(), itemRepository::getReferenceById));
+        }
+        // One locking query for the whole cart
+        Map<Long, Item> items = inventoryMetrics.timeLockWait(InventoryMetrics.LockOperation.CART,
+                        () -> itemRepository.findAllByIdWithLock(quantities.keySet())).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        quantities.forEach((itemId, quantity) -> {
+            Item item = items.get(itemId);
+            if (item == null) {
+                throw new IllegalArgumentException("Item not found: " + itemId);
+            }
+            if (!item.isActive() || !item.hasAvailableQuantity(quantity)) {
+                throw new IllegalStateException("Insufficient inventory or item inactive for item ID: " + itemId);
+            }
+        });
+        quantities.forEach((itemId, quantity) -> items.get(itemId).reserveQuantity(quantity));
+        return items;
+    }
+
     public void cancelReservation(Long reservationId) {
+        long started = System.nanoTime();
+        try {
+            transactionTemplate.executeWithoutResult(status -> cancel(reservationId));
+            inventoryMetrics.recordCancel(InventoryMetrics.Outcome.SUCCESS, System.nanoTime() - started);
+        } catch (RuntimeException e) {
+            inventoryMetrics.recordCancel(InventoryMetrics.Outcome.of(e), System.nanoTime() - started);
+            throw e;
+        }
+    }
+
+    private void cancel(Long reservationId) {
         Reservation reservation = reservationRepository.findById(reservationId)
                 .orElseThrow(() -> new IllegalArgumentException("Reservation not found"));
         if (reservation.getStatus() != Reservation.ReservationStatus.ACTIVE) {
@@ -55,8 +181,7 @@ public class ReservationService {
         }
         // Return reserved quantity to item
         Item item = reservation.getItem();
-        item.cancelReservation(reservation.getQuantity());
-        itemRepository.save(item);
+        releaseStock(item, reservation.getQuantity());
         // Update reservation status
         reservation.cancel();
         reservationRepository.save(reservation);
@@ -64,32 +189,40 @@ public class ReservationService {
         cacheService.evictReservationCache(reservationId);
     }
 
-    public List<Reservation> getReservationsByCustomer(String customerId) {
-        return reservationRepository.findByCustomerId(customerId);
+    @Transactional(readOnly = true)
+    public CursorPage<ReservationDto> getReservationsByCustomer(String customerId, long afterId, int size) {
+        int pageSize = pageSize(size);
+        return CursorPage.of(reservationRepository.findByCustomerPageAfter(customerId, afterId,
+                PageRequest.of(0, pageSize + 1)), pageSize, ReservationDto::getId);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ReservationDto> getReservationsByItem(Long itemId, long afterId, int size) {
+        int pageSize = pageSize(size);
+        return CursorPage.of(reservationRepository.findByItemPageAfter(itemId, afterId,
+                PageRequest.of(0, pageSize + 1)), pageSize, ReservationDto::getId);
     }
 
-    public List<Reservation> getReservationsByItem(Long itemId) {
-        return reservationRepository.findByItemId(itemId);
+    @Transactional(readOnly = true)
+    public Optional<ReservationDto> getReservation(Long reservationId) {
+        return reservationRepository.findDtoById(reservationId);
     }
 
-    public Optional<Reservation> getReservation(Long reservationId) {
-        return reservationRepository.findById(reservationId);
+    private static int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_PAGE_SIZE));
     }
 
     // Expire reservations whose time has passed
-    @Transactional
-    public void expireReservations() {
-        List<Reservation> expired = reservationRepository.findExpiredReservations(LocalDateTime.now());
-        for (Reservation reservation : expired) {
-            if (reservation.getStatus() == Reservation.ReservationStatus.ACTIVE) {
-                reservation.markAsExpired();
-                Item item = reservation.getItem();
-                item.cancelReservation(reservation.getQuantity());
-                itemRepository.save(item);
-                reservationRepository.save(reservation);
-                cacheService.evictItemCache(item.getId());
-                cacheService.evictReservationCache(reservation.getId());
-            }
+    public int expireReservations() {
+        return reservationExpirySweeper.sweep();
+    }
+
+    private void releaseStock(Item item, Integer quantity) {
+        if (reservationProperties.getMode() == ReservationProperties.Mode.LEDGER) {
+            stockLedger.release(item.getId(), quantity);
+            return;
         }
+        item.cancelReservation(quantity);
+        itemRepository.save(item);
     }
-} 
\ No newline at end of file
+}
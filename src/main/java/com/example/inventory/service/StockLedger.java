@@ -0,0 +1,264 @@
+package com.example.inventory.service;
+
+import com.example.inventory.entity.Item;
+import com.example.inventory.entity.StockLedgerEntry;
+import com.example.inventory.repository.ItemRepository;
+import com.example.inventory.repository.StockLedgerEntryRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-process available/reserved counters used as the authoritative admission path
+ * when {@code app.reservation.mode=ledger}.
+ * <p>
+ * Each item is loaded once from the database and then reserved against with a CAS loop,
+ * so concurrent reservations on a hot item never wait on its row lock. Every change is also
+ * appended as a {@link StockLedgerEntry} in the caller's transaction, so it commits with the
+ * reservation it belongs to. The flusher folds committed entries into the item row and deletes
+ * them in one transaction; it is the only writer of ledger changes to the items table. A failed
+ * flush leaves its entries for the next attempt, and a counter loaded after a crash applies the
+ * entries that were never folded.
+ */
+@Component
+@Slf4j
+public class StockLedger {
+
+    private final ItemRepository itemRepository;
+    private final StockLedgerEntryRepository entryRepository;
+    private final CacheService cacheService;
+    private final TransactionTemplate transactionTemplate;
+    private final ConcurrentMap<Long, StockCounter> counters = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // Until the first flush completes, entries left by a previous run may still need folding
+    private volatile boolean recovered;
+
+    public StockLedger(ItemRepository itemRepository, StockLedgerEntryRepository entryRepository,
+                       CacheService cacheService, PlatformTransactionManager transactionManager) {
+        this.itemRepository = itemRepository;
+        this.entryRepository = entryRepository;
+        this.cacheService = cacheService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Reserves stock with the same rules as {@link Item#reserveQuantity(Integer)}. When called
+     * inside a transaction the reservation is handed back if that transaction rolls back.
+     */
+    public void reserve(Long itemId, int quantity) {
+        StockCounter counter = counterFor(itemId);
+        counter.reserve(quantity);
+        append(itemId, quantity, () -> counter.release(quantity));
+    }
+
+    /**
+     * Returns reserved stock with the same rules as {@link Item#cancelReservation(Integer)}.
+     * The stock only becomes available again once the caller's transaction commits, so a release
+     * that rolls back never has to take back units another request may already hold.
+     */
+    public void release(Long itemId, int quantity) {
+        StockCounter counter = counterFor(itemId);
+        counter.checkReserved(quantity);
+        entryRepository.save(StockLedgerEntry.builder().itemId(itemId).delta(-quantity).build());
+        afterCommit(() -> counter.release(quantity));
+    }
+
+    /**
+     * Mirrors a supply that was written straight to the items table. The supply is applied
+     * once its transaction commits, and only if the counter was loaded before that commit.
+     */
+    public void onSupply(Long itemId, int quantity, Item item) {
+        // The entity's version is only bumped when the transaction flushes, so read it at commit
+        afterCommit(() -> {
+            if (item.getVersion() != null) {
+                supplyIfLoadedBefore(itemId, quantity, item.getVersion());
+            }
+        });
+    }
+
+    /**
+     * Same as {@link #onSupply(Long, int, Item)} for supplies written with a bulk update, where
+     * the caller knows the version the row has once its transaction commits.
+     */
+    public void onSupply(Long itemId, int quantity, long committedVersion) {
+        afterCommit(() -> supplyIfLoadedBefore(itemId, quantity, committedVersion));
+    }
+
+    public boolean isTracking(Long itemId) {
+        return counters.containsKey(itemId);
+    }
+
+    /**
+     * Current in-memory available quantity, or {@code null} if the item is not tracked.
+     */
+    public Integer getAvailableQuantity(Long itemId) {
+        StockCounter counter = counters.get(itemId);
+        return counter != null ? available(counter.state.get()) : null;
+    }
+
+    @Scheduled(fixedDelayString = "${app.reservation.ledger.flush-interval-ms:50}")
+    public void flush() {
+        if (recovered && counters.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            entryRepository.findPendingItemIds().forEach(this::fold);
+            recovered = true;
+        } catch (RuntimeException e) {
+            log.error("Failed to read pending stock ledger entries", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        if (!counters.isEmpty()) {
+            log.info("Flushing stock ledger for {} items before shutdown", counters.size());
+            flush();
+        }
+    }
+
+    // The entry commits or rolls back with the caller's transaction, and the counter follows it
+    private void append(Long itemId, int delta, Runnable compensation) {
+        try {
+            entryRepository.save(StockLedgerEntry.builder().itemId(itemId).delta(delta).build());
+        } catch (RuntimeException e) {
+            compensation.run();
+            throw e;
+        }
+        onRollback(compensation);
+    }
+
+    private void fold(Long itemId) {
+        try {
+            Integer delta = transactionTemplate.execute(status -> {
+                List<StockLedgerEntry> entries = entryRepository.findByItemId(itemId);
+                int sum = entries.stream().mapToInt(StockLedgerEntry::getDelta).sum();
+                if (sum != 0) {
+                    itemRepository.applyReservedDelta(itemId, sum);
+                }
+                entryRepository.deleteAllByIdInBatch(entries.stream().map(StockLedgerEntry::getId).toList());
+                return sum;
+            });
+            if (delta != null && delta != 0) {
+                cacheService.evictItemCache(itemId);
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to flush stock ledger entries for item ID: {}", itemId, e);
+        }
+    }
+
+    private StockCounter counterFor(Long itemId) {
+        return counters.computeIfAbsent(itemId, id -> {
+            StockLedgerEntryRepository.LedgerState state = entryRepository.findLedgerState(id)
+                    .orElseThrow(() -> new IllegalArgumentException("Item not found"));
+            log.debug("Loaded item ID: {} into stock ledger", id);
+            return new StockCounter(state);
+        });
+    }
+
+    private void supplyIfLoadedBefore(Long itemId, int quantity, long committedVersion) {
+        StockCounter counter = counters.get(itemId);
+        if (counter != null && counter.loadedVersion < committedVersion) {
+            counter.supply(quantity);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static void onRollback(Runnable compensation) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    compensation.run();
+                }
+            }
+        });
+    }
+
+    private static long pack(int available, int reserved) {
+        return ((long) available << 32) | (reserved & 0xFFFFFFFFL);
+    }
+
+    private static int available(long state) {
+        return (int) (state >> 32);
+    }
+
+    private static int reserved(long state) {
+        return (int) state;
+    }
+
+    private static final class StockCounter {
+
+        // available quantity in the high 32 bits, reserved quantity in the low 32 bits
+        private final AtomicLong state;
+        private final boolean active;
+        private final long loadedVersion;
+
+        private StockCounter(StockLedgerEntryRepository.LedgerState item) {
+            this.state = new AtomicLong(pack(Math.toIntExact(item.getAvailableQuantity()),
+                    Math.toIntExact(item.getReservedQuantity())));
+            this.active = Boolean.TRUE.equals(item.getActive());
+            this.loadedVersion = item.getVersion() != null ? item.getVersion() : 0L;
+        }
+
+        private void reserve(int quantity) {
+            if (!active) {
+                throw new IllegalStateException("Insufficient inventory or item inactive");
+            }
+            while (true) {
+                long current = state.get();
+                int available = available(current);
+                if (available < quantity) {
+                    throw new IllegalStateException("Insufficient inventory or item inactive");
+                }
+                if (state.compareAndSet(current, pack(available - quantity, reserved(current) + quantity))) {
+                    return;
+                }
+            }
+        }
+
+        private void checkReserved(int quantity) {
+            if (reserved(state.get()) < quantity) {
+                throw new IllegalStateException("Insufficient reserved quantity");
+            }
+        }
+
+        // Cannot fail: only called for units this counter handed out and has not taken back yet
+        private void release(int quantity) {
+            state.addAndGet(((long) quantity << 32) - quantity);
+        }
+
+        private void supply(int quantity) {
+            state.addAndGet((long) quantity << 32);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.inventory.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel with O(1) insertion.
+ * <p>
+ * Level 0 has {@code wheelSize} buckets of {@code tickMs} each; every further level has buckets
+ * as wide as the whole level below it. A deadline goes into the lowest level that can hold it and
+ * is cascaded down as the clock reaches its bucket, so it is never reported before it has passed
+ * and at most one tick after.
+ * <p>
+ * Not thread-safe: callers confine a wheel to a single thread.
+ */
+public class TimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final List<Level<T>> levels = new ArrayList<>();
+    private long clock;
+    private int size;
+
+    public TimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize < 2) {
+            throw new IllegalArgumentException("Tick must be positive and wheel size at least 2");
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.clock = startMs - Math.floorMod(startMs, tickMs);
+        this.levels.add(new Level<>(tickMs, wheelSize));
+    }
+
+    /**
+     * Adds a value that becomes due once the clock has passed {@code deadlineMs}.
+     *
+     * @return false if the deadline has already passed, in which case nothing is added
+     */
+    public boolean add(T value, long deadlineMs) {
+        if (deadlineMs < clock) {
+            return false;
+        }
+        place(new Entry<>(value, deadlineMs));
+        size++;
+        return true;
+    }
+
+    /**
+     * Moves the clock forward to {@code nowMs}, handing every value whose deadline has passed to
+     * {@code expired}.
+     */
+    public void advance(long nowMs, Consumer<T> expired) {
+        while (clock + tickMs <= nowMs) {
+            List<Entry<T>> due = levels.get(0).take(clock);
+            clock += tickMs;
+            for (Entry<T> entry : due) {
+                size--;
+                expired.accept(entry.value);
+            }
+            // Highest level first so cascaded entries never land in an already drained bucket
+            for (int l = levels.size() - 1; l > 0; l--) {
+                Level<T> level = levels.get(l);
+                if (clock % level.tickMs == 0) {
+                    level.take(clock).forEach(this::place);
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long getClock() {
+        return clock;
+    }
+
+    private void place(Entry<T> entry) {
+        for (int l = 0; ; l++) {
+            if (l == levels.size()) {
+                levels.add(new Level<>(levels.get(l - 1).tickMs * wheelSize, wheelSize));
+            }
+            Level<T> level = levels.get(l);
+            if (Math.floorDiv(entry.deadlineMs, level.tickMs) - Math.floorDiv(clock, level.tickMs) < wheelSize) {
+                level.put(entry);
+                return;
+            }
+        }
+    }
+
+    private record Entry<T>(T value, long deadlineMs) {
+    }
+
+    private static final class Level<T> {
+
+        private final long tickMs;
+        private final List<Entry<T>>[] buckets;
+
+        @SuppressWarnings("unchecked")
+        private Level(long tickMs, int wheelSize) {
+            this.tickMs = tickMs;
+            this.buckets = new List[wheelSize];
+        }
+
+        private void put(Entry<T> entry) {
+            int index = index(entry.deadlineMs);
+            if (buckets[index] == null) {
+                buckets[index] = new ArrayList<>();
+            }
+            buckets[index].add(entry);
+        }
+
+        // Removes and returns the bucket covering timeMs
+        private List<Entry<T>> take(long timeMs) {
+            int index = index(timeMs);
+            List<Entry<T>> bucket = buckets[index];
+            buckets[index] = null;
+            return bucket != null ? bucket : List.of();
+        }
+
+        private int index(long timeMs) {
+            return (int) Math.floorMod(Math.floorDiv(timeMs, tickMs), (long) buckets.length);
+        }
+    }
+}
@@ -1,15 +1,27 @@
 package com.example.inventory;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.test.context.ActiveProfiles;
 
+import static org.junit.jupiter.api.Assertions.*;
+
 @SpringBootTest
 @ActiveProfiles("test")
 class InventoryApplicationIntegrationTest {
 
+    @Autowired
+    private ThreadPoolTaskScheduler taskScheduler;
+
     @Test
     void contextLoads() {
 
     }
-} 
\ No newline at end of file
+
+    @Test
+    void scheduledJobs_DoNotShareOneThread() {
+        assertEquals(5, taskScheduler.getScheduledThreadPoolExecutor().getCorePoolSize());
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.inventory;
+
+import com.example.inventory.config.ReservationProperties;
+import com.example.inventory.entity.Item;
+import com.example.inventory.entity.Reservation;
+import com.example.inventory.repository.ItemRepository;
+import com.example.inventory.repository.ReservationRepository;
+import com.example.inventory.service.CacheService;
+import com.example.inventory.service.ReservationExpirySweeper;
+import com.example.inventory.service.StockLedger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two sweepers standing in for two nodes, each claiming chunks in its own transactions against the
+ * same H2 database, must expire every reservation exactly once.
+ */
+@SpringBootTest(properties = "app.reservation.expiry.wheel.enabled=false")
+@ActiveProfiles("test")
+class ReservationExpiryIntegrationTest {
+
+    private static final int ITEMS = 3;
+    private static final int RESERVATIONS_PER_ITEM = 60;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private CacheService cacheService;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<Item> items = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        items.forEach(item -> reservationRepository.deleteAll(reservationRepository.findByItemId(item.getId())));
+        itemRepository.deleteAllById(items.stream().map(Item::getId).toList());
+    }
+
+    @Test
+    void parallelSweeps_ExpireEachReservationAndReleaseItsStockOnce() throws Exception {
+        LocalDateTime expired = LocalDateTime.now().minusMinutes(1);
+        for (int i = 0; i < ITEMS; i++) {
+            Item item = itemRepository.save(Item.builder()
+                    .name("Sweep item " + i)
+                    .sku("SWEEP-" + i)
+                    .price(new BigDecimal("9.99"))
+                    .availableQuantity(0)
+                    .reservedQuantity(RESERVATIONS_PER_ITEM * 2)
+                    .isActive(true)
+                    .build());
+            items.add(item);
+            List<Reservation> reservations = new ArrayList<>();
+            for (int r = 0; r < RESERVATIONS_PER_ITEM; r++) {
+                reservations.add(Reservation.builder()
+                        .item(item)
+                        .customerId("CUST-" + r)
+                        .quantity(2)
+                        .status(Reservation.ReservationStatus.ACTIVE)
+                        .expiresAt(expired)
+                        .build());
+            }
+            reservationRepository.saveAll(reservations);
+        }
+
+        ExecutorService nodes = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Integer>> sweeps = new ArrayList<>();
+            for (int node = 0; node < 2; node++) {
+                ReservationExpirySweeper sweeper = sweeper();
+                Callable<Integer> sweep = () -> {
+                    start.await();
+                    return sweeper.sweep();
+                };
+                sweeps.add(nodes.submit(sweep));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> sweep : sweeps) {
+                total += sweep.get(1, TimeUnit.MINUTES);
+            }
+            assertEquals(ITEMS * RESERVATIONS_PER_ITEM, total);
+        } finally {
+            nodes.shutdownNow();
+        }
+
+        for (Item item : items) {
+            Item swept = itemRepository.findById(item.getId()).orElseThrow();
+            assertEquals(0, swept.getReservedQuantity());
+            assertEquals(RESERVATIONS_PER_ITEM * 2, swept.getAvailableQuantity());
+            assertTrue(reservationRepository.findByItemId(item.getId()).stream()
+                    .allMatch(r -> r.getStatus() == Reservation.ReservationStatus.EXPIRED));
+        }
+    }
+
+    // Small chunks so the two sweeps interleave instead of one claiming everything at once
+    private ReservationExpirySweeper sweeper() {
+        ReservationProperties properties = new ReservationProperties();
+        properties.getExpiry().setChunkSize(10);
+        return new ReservationExpirySweeper(reservationRepository, itemRepository, cacheService, stockLedger,
+                properties, transactionTemplate, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.inventory.benchmark;
+
+import com.example.inventory.dto.BulkImportResult;
+import com.example.inventory.repository.ItemRepository;
+import com.example.inventory.service.ItemImportService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Bulk item import throughput against the test database.
+ * Run with {@code mvn test -Dbenchmark=true -Dtest=BulkImportBenchmarkTest}.
+ */
+@SpringBootTest(properties = "logging.level.org.hibernate.SQL=INFO")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BulkImportBenchmarkTest {
+
+    private static final int ITEMS = Integer.getInteger("benchmark.items", 100_000);
+
+    @Autowired
+    private ItemImportService itemImportService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @AfterEach
+    void cleanUp() {
+        itemRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void importNdjson() throws Exception {
+        itemImportService.importNdjson(new ByteArrayInputStream(upload("WARMUP-", 20_000)));
+        itemRepository.deleteAllInBatch();
+        byte[] upload = upload("IMPORT-", ITEMS);
+
+        long started = System.nanoTime();
+        BulkImportResult result = itemImportService.importNdjson(new ByteArrayInputStream(upload));
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+        assertEquals(ITEMS, result.getImported());
+        assertEquals(ITEMS, itemRepository.count());
+        System.out.printf("items=%d elapsed=%.2f s throughput=%.0f items/s%n", ITEMS, seconds, ITEMS / seconds);
+    }
+
+    private static byte[] upload(String prefix, int items) {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < items; i++) {
+            body.append("{\"sku\":\"").append(prefix).append(i).append("\",\"name\":\"").append(prefix).append(i)
+                    .append("\",\"price\":9.99,\"availableQuantity\":10,\"category\":\"Benchmark\"}\n");
+        }
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
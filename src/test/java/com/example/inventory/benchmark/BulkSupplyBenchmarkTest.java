@@ -0,0 +1,95 @@
+package com.example.inventory.benchmark;
+
+import com.example.inventory.dto.BulkSupplyResult;
+import com.example.inventory.repository.ItemRepository;
+import com.example.inventory.service.ItemImportService;
+import com.example.inventory.service.ItemService;
+import com.example.inventory.service.ItemSupplyService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Receiving feed throughput: the bulk supply path against one {@code addSupplyBySku} call per line.
+ * The per-line path is timed on a sample and extrapolated to the whole feed.
+ * Run with {@code mvn test -Dbenchmark=true -Dtest=BulkSupplyBenchmarkTest}.
+ */
+@SpringBootTest(properties = "logging.level.org.hibernate.SQL=INFO")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class BulkSupplyBenchmarkTest {
+
+    private static final int ITEMS = Integer.getInteger("benchmark.items", 10_000);
+    private static final int LINES = Integer.getInteger("benchmark.lines", 50_000);
+    private static final int PER_LINE_SAMPLE = 2_000;
+
+    @Autowired
+    private ItemSupplyService itemSupplyService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemImportService itemImportService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @BeforeEach
+    void seed() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < ITEMS; i++) {
+            body.append("{\"sku\":\"RECV-").append(i).append("\",\"name\":\"RECV-").append(i)
+                    .append("\",\"price\":9.99,\"availableQuantity\":1,\"category\":\"Benchmark\"}\n");
+        }
+        itemImportService.importNdjson(new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        itemRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void receivingFeed() throws Exception {
+        itemSupplyService.supplyCsv(new ByteArrayInputStream(feed(LINES)));
+        for (int i = 0; i < PER_LINE_SAMPLE / 10; i++) {
+            itemService.addSupplyBySku("RECV-" + (i % ITEMS), 1);
+        }
+        byte[] feed = feed(LINES);
+
+        long started = System.nanoTime();
+        BulkSupplyResult result = itemSupplyService.supplyCsv(new ByteArrayInputStream(feed));
+        double bulkSeconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+        started = System.nanoTime();
+        for (int i = 0; i < PER_LINE_SAMPLE; i++) {
+            itemService.addSupplyBySku("RECV-" + (i % ITEMS), 1);
+        }
+        double perLineSeconds = (System.nanoTime() - started) / 1_000_000_000.0 * LINES / PER_LINE_SAMPLE;
+
+        assertEquals(Math.min(ITEMS, LINES), result.getApplied());
+        // The per-line sample only touches the first SKUs, the last one got the seed and both bulk feeds
+        assertEquals(1 + 2 * LINES / ITEMS, itemRepository.findBySku("RECV-" + (ITEMS - 1)).orElseThrow()
+                .getAvailableQuantity());
+        System.out.printf("lines=%d skus=%d bulk=%.2f s per-line (extrapolated)=%.2f s speedup=%.0fx%n",
+                LINES, result.getApplied(), bulkSeconds, perLineSeconds, perLineSeconds / bulkSeconds);
+    }
+
+    private static byte[] feed(int lines) {
+        StringBuilder body = new StringBuilder("sku,quantity\n");
+        for (int i = 0; i < lines; i++) {
+            body.append("RECV-").append(i % ITEMS).append(",1\n");
+        }
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.inventory.benchmark;
+
+import com.example.inventory.repository.ItemRepository;
+import com.example.inventory.service.ItemService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryType;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * NDJSON catalog export throughput and heap growth against the test database.
+ * Run with {@code mvn test -Dbenchmark=true -Dtest=CatalogExportBenchmarkTest}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CatalogExportBenchmarkTest {
+
+    private static final int ITEMS = Integer.getInteger("benchmark.items", 500_000);
+    // Well clear of ids handed out by the item sequence
+    private static final long FIRST_ID = 1_000_000_000L;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        itemRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void exportKeepsHeapFlat() throws Exception {
+        insertItems(ITEMS);
+        System.gc();
+        long heapBefore = liveHeap();
+        HeapSamplingOutputStream out = new HeapSamplingOutputStream();
+
+        long started = System.nanoTime();
+        long exported = itemService.exportItems(out);
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+
+        assertEquals(ITEMS, exported);
+        System.out.printf("items=%d throughput=%.0f rows/s %.1f MB/s live heap before=%d MB peak=%d MB%n",
+                exported, exported / seconds, out.bytes / seconds / (1 << 20),
+                heapBefore >> 20, out.peakHeap >> 20);
+    }
+
+    private void insertItems(int count) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int batchSize = 10_000;
+        for (int from = 0; from < count; from += batchSize) {
+            List<Object[]> rows = new ArrayList<>(batchSize);
+            for (int i = from; i < Math.min(from + batchSize, count); i++) {
+                rows.add(new Object[]{FIRST_ID + i, "Export item " + i, "EXPORT-" + i, "Benchmark", now, now});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO items (id, name, sku, price, available_quantity, reserved_quantity, "
+                    + "category, is_active, created_at, updated_at, version) "
+                    + "VALUES (?, ?, ?, 9.99, 10, 0, ?, true, ?, ?, 0)", rows);
+        }
+    }
+
+    // Heap in use right after the most recent collection, i.e. without garbage
+    private static long liveHeap() {
+        return ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP && pool.getCollectionUsage() != null)
+                .mapToLong(pool -> pool.getCollectionUsage().getUsed())
+                .sum();
+    }
+
+    // Discards the export while sampling live heap every 1 MB written
+    private static class HeapSamplingOutputStream extends OutputStream {
+
+        private long bytes;
+        private long peakHeap;
+
+        @Override
+        public void write(int b) {
+            count(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count(len);
+        }
+
+        private void count(int len) {
+            if ((bytes + len) >> 20 != bytes >> 20) {
+                peakHeap = Math.max(peakHeap, liveHeap());
+            }
+            bytes += len;
+        }
+    }
+}
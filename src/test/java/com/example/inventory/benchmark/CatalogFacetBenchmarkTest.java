@@ -0,0 +1,132 @@
+package com.example.inventory.benchmark;
+
+import com.example.inventory.dto.CatalogFilter;
+import com.example.inventory.repository.ItemRepository;
+import com.example.inventory.service.CatalogFacetIndex;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.IntToLongFunction;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * One browse request, a page of ids plus the total and category and brand counts, answered by SQL
+ * over the items table against the {@link CatalogFacetIndex}. Reports microseconds per request
+ * and the index's memory gauge.
+ * Run with {@code mvn test -Dbenchmark=true -Dtest=CatalogFacetBenchmarkTest}.
+ */
+@SpringBootTest(properties = "logging.level.org.hibernate.SQL=INFO")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CatalogFacetBenchmarkTest {
+
+    private static final int ITEMS = Integer.getInteger("benchmark.items", 100_000);
+    private static final int CATEGORIES = 50;
+    private static final int BRANDS = 200;
+    private static final int PAGE_SIZE = 50;
+    private static final int REQUESTS = 200;
+    private static final int ROUNDS = 5;
+    // Well clear of ids handed out by the item sequence
+    private static final long FIRST_ID = 1_000_000_000L;
+
+    @Autowired
+    private CatalogFacetIndex catalogFacetIndex;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @AfterEach
+    void cleanUp() {
+        itemRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void browse() {
+        insertItems(ITEMS);
+        catalogFacetIndex.rebuild();
+        IntToLongFunction sql = this::browseWithSql;
+        IntToLongFunction index = request -> catalogFacetIndex.select(filter(request), 0L, PAGE_SIZE + 1).total();
+        for (int request = 0; request < CATEGORIES; request++) {
+            assertEquals(sql.applyAsLong(request), index.applyAsLong(request));
+        }
+
+        for (int round = 0; round < ROUNDS; round++) {
+            report("sql", sql);
+            report("index", index);
+        }
+        System.out.printf("items=%d index memory=%.0f bytes%n", ITEMS,
+                meterRegistry.get("inventory.catalog.facets.memory").gauge().value());
+    }
+
+    private void report(String path, IntToLongFunction browse) {
+        long started = System.nanoTime();
+        long total = 0;
+        for (int i = 0; i < REQUESTS; i++) {
+            total += browse.applyAsLong(i);
+        }
+        double micros = (System.nanoTime() - started) / 1_000.0 / REQUESTS;
+        System.out.printf("path=%s matches=%d latency=%.1f us/request%n", path, total / REQUESTS, micros);
+    }
+
+    // Two categories and the four brands that share items with them; requests cycle through
+    // the categories so the database cannot answer from its query result cache
+    private static CatalogFilter filter(int request) {
+        int category = request % CATEGORIES;
+        int next = (category + 1) % CATEGORIES;
+        return CatalogFilter.builder()
+                .categories(Set.of("Category-" + category, "Category-" + next))
+                .brands(Set.of("Brand-" + category, "Brand-" + next, "Brand-" + (category + CATEGORIES),
+                        "Brand-" + (next + CATEGORIES)))
+                .active(true)
+                .inStock(true)
+                .build();
+    }
+
+    private long browseWithSql(int request) {
+        CatalogFilter filter = filter(request);
+        String where = "WHERE category IN (" + quoted(filter.getCategories()) + ") AND brand IN ("
+                + quoted(filter.getBrands()) + ") AND is_active = true AND available_quantity > 0";
+        jdbcTemplate.queryForList("SELECT id FROM items " + where + " ORDER BY id LIMIT " + (PAGE_SIZE + 1), Long.class);
+        jdbcTemplate.queryForList("SELECT category, COUNT(*) FROM items " + where + " GROUP BY category");
+        jdbcTemplate.queryForList("SELECT brand, COUNT(*) FROM items " + where + " GROUP BY brand");
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM items " + where, Long.class);
+    }
+
+    private static String quoted(Set<String> values) {
+        return values.stream().map(value -> "'" + value + "'").collect(Collectors.joining(", "));
+    }
+
+    private void insertItems(int count) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int batchSize = 10_000;
+        for (int from = 0; from < count; from += batchSize) {
+            List<Object[]> rows = new ArrayList<>(batchSize);
+            for (int i = from; i < Math.min(from + batchSize, count); i++) {
+                rows.add(new Object[]{FIRST_ID + i, "Facet item " + i, "FACET-" + i, i % 10,
+                        "Category-" + i % CATEGORIES, "Brand-" + i % BRANDS, i % 20 != 0, now, now});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO items (id, name, sku, price, available_quantity, reserved_quantity, "
+                    + "category, brand, is_active, created_at, updated_at, version) "
+                    + "VALUES (?, ?, ?, 9.99, ?, 0, ?, ?, ?, ?, ?, 0)", rows);
+        }
+    }
+}
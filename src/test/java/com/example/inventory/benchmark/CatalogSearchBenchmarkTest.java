@@ -0,0 +1,145 @@
+package com.example.inventory.benchmark;
+
+import com.example.inventory.repository.ItemRepository;
+import com.example.inventory.service.CatalogSearchIndex;
+import com.example.inventory.service.ItemService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToIntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Top-20 full-text search over a generated catalog, against the {@link CatalogSearchIndex} alone
+ * and through {@link ItemService#searchItems}, which also loads the hits from the database.
+ * Queries mix exact words, a prefix being typed and a misspelling. Reports latency percentiles.
+ * Run with {@code mvn test -Dbenchmark=true -Dtest=CatalogSearchBenchmarkTest}.
+ */
+@SpringBootTest(properties = "logging.level.org.hibernate.SQL=INFO")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CatalogSearchBenchmarkTest {
+
+    private static final int ITEMS = Integer.getInteger("benchmark.items", 1_000_000);
+    private static final int VOCABULARY = 5_000;
+    private static final int QUERIES = 2_000;
+    private static final int ROUNDS = 3;
+    private static final int LIMIT = 20;
+    // Well clear of ids handed out by the item sequence
+    private static final long FIRST_ID = 1_000_000_000L;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private CatalogSearchIndex catalogSearchIndex;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        itemRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void search() {
+        String[] words = vocabulary();
+        insertItems(words);
+        long started = System.nanoTime();
+        catalogSearchIndex.rebuild();
+        System.out.printf("items=%d index build=%.1f s%n", ITEMS, (System.nanoTime() - started) / 1_000_000_000.0);
+
+        List<String> queries = queries(words);
+        assertFalse(itemService.searchItems(words[0] + " " + words[1], LIMIT).orElseThrow().isEmpty());
+        for (int round = 0; round < ROUNDS; round++) {
+            report("index", queries, query -> catalogSearchIndex.search(query, LIMIT).size());
+            report("end-to-end", queries, query -> itemService.searchItems(query, LIMIT).orElseThrow().size());
+        }
+    }
+
+    private static void report(String path, List<String> queries, ToIntFunction<String> search) {
+        long[] latencies = new long[queries.size()];
+        long hits = 0;
+        for (int i = 0; i < queries.size(); i++) {
+            long started = System.nanoTime();
+            hits += search.applyAsInt(queries.get(i));
+            latencies[i] = System.nanoTime() - started;
+        }
+        Arrays.sort(latencies);
+        System.out.printf("path=%s queries=%d hits/query=%.1f p50=%.2f ms p99=%.2f ms max=%.2f ms%n", path,
+                queries.size(), (double) hits / queries.size(), millis(latencies, 0.50), millis(latencies, 0.99),
+                latencies[latencies.length - 1] / 1_000_000.0);
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(percentile * sorted.length))] / 1_000_000.0;
+    }
+
+    // Pronounceable made-up words, so the term dictionary is as large as a real catalog's
+    private static String[] vocabulary() {
+        Random random = new Random(42);
+        String consonants = "bcdfghklmnprstvz";
+        String vowels = "aeiou";
+        String[] words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            StringBuilder word = new StringBuilder();
+            int syllables = 2 + random.nextInt(3);
+            for (int s = 0; s < syllables; s++) {
+                word.append(consonants.charAt(random.nextInt(consonants.length())))
+                        .append(vowels.charAt(random.nextInt(vowels.length())));
+            }
+            words[i] = word.append(i).toString();
+        }
+        return words;
+    }
+
+    private static List<String> queries(String[] words) {
+        Random random = new Random(7);
+        List<String> queries = new ArrayList<>(QUERIES);
+        for (int i = 0; i < QUERIES; i++) {
+            String first = words[random.nextInt(words.length)];
+            String second = words[random.nextInt(words.length)];
+            queries.add(switch (i % 3) {
+                case 0 -> first + " " + second;
+                case 1 -> first + " " + second.substring(0, 3);
+                default -> first.substring(1);
+            });
+        }
+        return queries;
+    }
+
+    private void insertItems(String[] words) {
+        Random random = new Random(1);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int batchSize = 10_000;
+        for (int from = 0; from < ITEMS; from += batchSize) {
+            List<Object[]> rows = new ArrayList<>(batchSize);
+            for (int i = from; i < Math.min(from + batchSize, ITEMS); i++) {
+                String name = words[random.nextInt(VOCABULARY)] + " " + words[random.nextInt(VOCABULARY)] + " " + i;
+                String description = words[random.nextInt(VOCABULARY)] + " " + words[random.nextInt(VOCABULARY)] + " "
+                        + words[random.nextInt(VOCABULARY)] + " " + words[random.nextInt(VOCABULARY)];
+                rows.add(new Object[]{FIRST_ID + i, name, description, "SEARCH-" + i,
+                        words[i % 100], words[100 + i % 500], now, now});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO items (id, name, description, sku, price, available_quantity, "
+                    + "reserved_quantity, category, brand, is_active, created_at, updated_at, version) "
+                    + "VALUES (?, ?, ?, ?, 9.99, 10, 0, ?, ?, true, ?, ?, 0)", rows);
+        }
+    }
+}
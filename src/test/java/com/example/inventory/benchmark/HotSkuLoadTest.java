@@ -0,0 +1,303 @@
+package com.example.inventory.benchmark;
+
+import com.example.inventory.config.ReservationProperties;
+import com.example.inventory.dto.CreateItemRequest;
+import com.example.inventory.dto.ReservationRequest;
+import com.example.inventory.service.ItemService;
+import com.example.inventory.service.ReservationService;
+import com.example.inventory.service.StockLedger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ActiveProfilesResolver;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Contention harness for the reservation paths: worker threads fire a weighted mix of reserve,
+ * cancel, supply and read calls at a few hot items for a fixed time, per
+ * {@link ReservationProperties.Mode}. Reports throughput and latency percentiles per operation,
+ * then checks every item against the database:
+ * <ul>
+ *   <li>neither quantity went negative,</li>
+ *   <li>{@code available_quantity + reserved_quantity} equals the initial stock plus all supply,</li>
+ *   <li>{@code reserved_quantity} equals the sum of the item's active reservations and the
+ *       quantity the harness saw reserved minus what it saw cancelled.</li>
+ * </ul>
+ * Out-of-stock rejections and rolled back concurrency conflicts are counted; any other failure
+ * fails the run. Run it before merging a
+ * concurrency change:
+ * {@code mvn test -Dbenchmark=true -Dtest=HotSkuLoadTest}, adding
+ * {@code -Dload.profiles=test,postgres} to run against PostgreSQL. Tunable with {@code load.threads},
+ * {@code load.seconds}, {@code load.items}, {@code load.stock}, {@code load.modes} and
+ * {@code load.mix} (e.g. {@code reserve=50,cancel=25,supply=5,read=20}).
+ */
+@SpringBootTest(properties = {"logging.level.org.hibernate.SQL=INFO", "logging.level.com.example.inventory=WARN"})
+@ActiveProfiles(resolver = HotSkuLoadTest.Profiles.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class HotSkuLoadTest {
+
+    private static final int THREADS = Integer.getInteger("load.threads", 16);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 10);
+    private static final int ITEMS = Integer.getInteger("load.items", 3);
+    private static final int STOCK = Integer.getInteger("load.stock", 200);
+    private static final String MODES = System.getProperty("load.modes", "LOCKED,CONDITIONAL_UPDATE,LEDGER,COALESCED");
+    private static final String MIX = System.getProperty("load.mix", "reserve=50,cancel=25,supply=5,read=20");
+    private static final int MAX_QUANTITY = 3;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private ReservationProperties reservationProperties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void resetMode() {
+        reservationProperties.setMode(ReservationProperties.Mode.LOCKED);
+    }
+
+    @Test
+    void hotSkuMixedLoad() throws Exception {
+        Map<Operation, Integer> mix = mix(MIX);
+        for (String name : MODES.split(",")) {
+            ReservationProperties.Mode mode = ReservationProperties.Mode.valueOf(name.trim());
+            reservationProperties.setMode(mode);
+            Run run = new Run(createItems());
+            long elapsed = run.execute(mix);
+            stockLedger.flush();
+
+            System.out.printf("mode=%s threads=%d items=%d seconds=%d%n", mode, THREADS, ITEMS, SECONDS);
+            run.stats.forEach((operation, stats) -> stats.print(operation, elapsed));
+            assertTrue(run.errors.isEmpty(), () -> "mode " + mode + " failed unexpectedly: " + run.errors);
+            run.verify(mode);
+        }
+    }
+
+    public static class Profiles implements ActiveProfilesResolver {
+
+        @Override
+        public String[] resolve(Class<?> testClass) {
+            return System.getProperty("load.profiles", "test").split(",");
+        }
+    }
+
+    private enum Operation { RESERVE, CANCEL, SUPPLY, READ }
+
+    // REJECTED: out of stock, or nothing left to cancel. CONFLICT: rolled back by a concurrency check
+    private enum Outcome { OK, REJECTED, CONFLICT }
+
+    private class Run {
+
+        private final long[] itemIds;
+        private final AtomicLongArray supplied;
+        private final AtomicLongArray reserved;
+        private final ConcurrentLinkedQueue<long[]> active = new ConcurrentLinkedQueue<>();
+        private final ConcurrentLinkedQueue<String> errors = new ConcurrentLinkedQueue<>();
+        private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+
+        Run(long[] itemIds) {
+            this.itemIds = itemIds;
+            this.supplied = new AtomicLongArray(itemIds.length);
+            this.reserved = new AtomicLongArray(itemIds.length);
+        }
+
+        long execute(Map<Operation, Integer> mix) throws Exception {
+            Operation[] weighted = mix.entrySet().stream()
+                    .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                    .toArray(Operation[]::new);
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Map<Operation, Stats>>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(executor.submit(() -> {
+                    Map<Operation, Stats> local = new EnumMap<>(Operation.class);
+                    start.await();
+                    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(SECONDS);
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    while (System.nanoTime() < deadline) {
+                        Operation operation = weighted[random.nextInt(weighted.length)];
+                        int item = random.nextInt(itemIds.length);
+                        long started = System.nanoTime();
+                        Outcome outcome = perform(operation, item, random);
+                        local.computeIfAbsent(operation, o -> new Stats()).record(System.nanoTime() - started, outcome);
+                    }
+                    return local;
+                }));
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            for (Future<Map<Operation, Stats>> worker : workers) {
+                worker.get().forEach((operation, local) -> stats.computeIfAbsent(operation, o -> new Stats()).merge(local));
+            }
+            long elapsed = System.nanoTime() - started;
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(1, TimeUnit.MINUTES));
+            return elapsed;
+        }
+
+        private Outcome perform(Operation operation, int item, ThreadLocalRandom random) {
+            long[] reservation = null;
+            try {
+                switch (operation) {
+                    case RESERVE -> {
+                        int quantity = 1 + random.nextInt(MAX_QUANTITY);
+                        long reservationId = reservationService.createReservation(ReservationRequest.builder()
+                                .itemId(itemIds[item])
+                                .customerId("LOAD-" + random.nextInt(100))
+                                .quantity(quantity)
+                                .expirationMinutes(30)
+                                .build()).getId();
+                        reserved.addAndGet(item, quantity);
+                        active.add(new long[]{reservationId, item, quantity});
+                    }
+                    case CANCEL -> {
+                        reservation = active.poll();
+                        if (reservation == null) {
+                            return Outcome.REJECTED;
+                        }
+                        reservationService.cancelReservation(reservation[0]);
+                        reserved.addAndGet((int) reservation[1], -reservation[2]);
+                    }
+                    case SUPPLY -> {
+                        int quantity = 1 + random.nextInt(MAX_QUANTITY);
+                        itemService.addSupply(itemIds[item], quantity);
+                        supplied.addAndGet(item, quantity);
+                    }
+                    case READ -> itemService.getItemById(itemIds[item]).orElseThrow();
+                }
+                return Outcome.OK;
+            } catch (IllegalStateException e) {
+                if (operation == Operation.RESERVE) {
+                    return Outcome.REJECTED;
+                }
+                errors.add(operation + ": " + e);
+                return Outcome.OK;
+            } catch (ConcurrencyFailureException e) {
+                // Rolled back, so a conflicted cancel leaves its reservation active
+                if (reservation != null) {
+                    active.add(reservation);
+                }
+                return Outcome.CONFLICT;
+            } catch (RuntimeException e) {
+                errors.add(operation + ": " + e);
+                return Outcome.OK;
+            }
+        }
+
+        void verify(ReservationProperties.Mode mode) {
+            for (int i = 0; i < itemIds.length; i++) {
+                Map<String, Object> row = jdbcTemplate.queryForMap("SELECT i.available_quantity, i.reserved_quantity, "
+                        + "(SELECT COALESCE(SUM(r.quantity), 0) FROM reservations r "
+                        + "WHERE r.item_id = i.id AND r.status = 'ACTIVE') AS active_quantity "
+                        + "FROM items i WHERE i.id = ?", itemIds[i]);
+                long available = ((Number) row.get("available_quantity")).longValue();
+                long reservedQuantity = ((Number) row.get("reserved_quantity")).longValue();
+                long activeQuantity = ((Number) row.get("active_quantity")).longValue();
+                String item = "mode " + mode + " item " + itemIds[i];
+                assertTrue(available >= 0, item + " oversold: available " + available);
+                assertTrue(reservedQuantity >= 0, item + " reserved " + reservedQuantity);
+                assertEquals(STOCK + supplied.get(i), available + reservedQuantity, item + " lost or created stock");
+                assertEquals(activeQuantity, reservedQuantity, item + " reserved differs from its active reservations");
+                assertEquals(reserved.get(i), reservedQuantity, item + " reserved differs from acknowledged calls");
+            }
+        }
+    }
+
+    private static class Stats {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private int rejected;
+        private int conflicts;
+
+        void record(long nanos, Outcome outcome) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (outcome == Outcome.REJECTED) {
+                rejected++;
+            } else if (outcome == Outcome.CONFLICT) {
+                conflicts++;
+            }
+        }
+
+        void merge(Stats other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i], Outcome.OK);
+            }
+            rejected += other.rejected;
+            conflicts += other.conflicts;
+        }
+
+        void print(Operation operation, long elapsedNanos) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            System.out.printf("  %-7s calls=%d rejected=%d conflicts=%d throughput=%.0f ops/s "
+                            + "p50=%.2f ms p99=%.2f ms p99.9=%.2f ms%n",
+                    operation, count, rejected, conflicts, count * 1_000_000_000.0 / elapsedNanos,
+                    percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.99), percentileMillis(sorted, 0.999));
+        }
+
+        private static double percentileMillis(long[] sorted, double percentile) {
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted.length == 0 ? 0 : sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+
+    private static Map<Operation, Integer> mix(String spec) {
+        Map<Operation, Integer> mix = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] weight = part.split("=");
+            mix.put(Operation.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+        }
+        return mix;
+    }
+
+    private long[] createItems() {
+        long[] ids = new long[ITEMS];
+        for (int i = 0; i < ITEMS; i++) {
+            String suffix = UUID.randomUUID().toString();
+            ids[i] = itemService.createItem(CreateItemRequest.builder()
+                    .name("Load item " + suffix)
+                    .sku("LOAD-" + suffix)
+                    .price(new BigDecimal("9.99"))
+                    .availableQuantity(STOCK)
+                    .build()).getId();
+        }
+        return ids;
+    }
+}
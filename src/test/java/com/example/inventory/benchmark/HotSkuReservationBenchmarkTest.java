@@ -0,0 +1,133 @@
+package com.example.inventory.benchmark;
+
+import com.example.inventory.config.ReservationProperties;
+import com.example.inventory.dto.CreateItemRequest;
+import com.example.inventory.dto.ItemDto;
+import com.example.inventory.dto.ReservationRequest;
+import com.example.inventory.entity.Item;
+import com.example.inventory.repository.ItemRepository;
+import com.example.inventory.service.ItemService;
+import com.example.inventory.service.ReservationService;
+import com.example.inventory.service.StockLedger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hot-SKU reservation throughput and latency per {@link ReservationProperties.Mode} against the test database.
+ * Run with {@code mvn test -Dbenchmark=true -Dtest=HotSkuReservationBenchmarkTest}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class HotSkuReservationBenchmarkTest {
+
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 16);
+    private static final int RESERVATIONS = Integer.getInteger("benchmark.reservations", 5000);
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private StockLedger stockLedger;
+
+    @Autowired
+    private ReservationProperties reservationProperties;
+
+    @AfterEach
+    void resetMode() {
+        reservationProperties.setMode(ReservationProperties.Mode.LOCKED);
+    }
+
+    @Test
+    void hotSkuThroughputByMode() throws Exception {
+        for (ReservationProperties.Mode mode : ReservationProperties.Mode.values()) {
+            reservationProperties.setMode(mode);
+            run(mode, 500);
+            Result result = run(mode, RESERVATIONS);
+            System.out.printf("mode=%s threads=%d reservations=%d throughput=%.0f ops/s p50=%.2f ms p99=%.2f ms%n",
+                    mode, THREADS, RESERVATIONS, result.opsPerSecond(),
+                    result.percentileMillis(0.50), result.percentileMillis(0.99));
+        }
+    }
+
+    private Result run(ReservationProperties.Mode mode, int reservations) throws Exception {
+        ItemDto item = createItem(reservations);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger failures = new AtomicInteger();
+        long[] latencies = new long[reservations];
+        for (int i = 0; i < reservations; i++) {
+            int index = i;
+            executor.submit(() -> {
+                start.await();
+                long requestStarted = System.nanoTime();
+                try {
+                    reservationService.createReservation(ReservationRequest.builder()
+                            .itemId(item.getId())
+                            .customerId("BENCH")
+                            .quantity(1)
+                            .expirationMinutes(30)
+                            .build());
+                } catch (RuntimeException e) {
+                    failures.incrementAndGet();
+                }
+                latencies[index] = System.nanoTime() - requestStarted;
+                return null;
+            });
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.MINUTES));
+        long elapsed = System.nanoTime() - started;
+
+        stockLedger.flush();
+        Item stored = itemRepository.findById(item.getId()).orElseThrow();
+        assertEquals(0, failures.get(), "mode " + mode + " rejected reservations with stock left");
+        assertEquals(0, stored.getAvailableQuantity());
+        assertEquals(reservations, stored.getReservedQuantity());
+        return new Result(reservations * 1_000_000_000.0 / elapsed, latencies);
+    }
+
+    private record Result(double opsPerSecond, long[] latencies) {
+
+        double percentileMillis(double percentile) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+
+    private ItemDto createItem(int quantity) {
+        String suffix = UUID.randomUUID().toString();
+        return itemService.createItem(CreateItemRequest.builder()
+                .name("Benchmark item " + suffix)
+                .sku("BENCH-" + suffix)
+                .price(new BigDecimal("9.99"))
+                .availableQuantity(quantity)
+                .build());
+    }
+}
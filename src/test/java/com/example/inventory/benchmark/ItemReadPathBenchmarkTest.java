@@ -0,0 +1,152 @@
+package com.example.inventory.benchmark;
+
+import com.example.inventory.dto.CursorPage;
+import com.example.inventory.dto.ItemDto;
+import com.example.inventory.entity.Item;
+import com.example.inventory.repository.ItemRepository;
+import com.example.inventory.service.ItemService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Listing the catalog page by page: managed entities copied into DTOs, as the read path did
+ * before, against the DTO projection queries behind {@link ItemService}. Reports time and
+ * bytes allocated per listed item.
+ * Run with {@code mvn test -Dbenchmark=true -Dtest=ItemReadPathBenchmarkTest}.
+ */
+@SpringBootTest(properties = "logging.level.org.hibernate.SQL=INFO")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ItemReadPathBenchmarkTest {
+
+    private static final int ITEMS = Integer.getInteger("benchmark.items", 100_000);
+    private static final int PAGE_SIZE = ItemService.MAX_PAGE_SIZE;
+    private static final int ROUNDS = 5;
+    // Well clear of ids handed out by the item sequence
+    private static final long FIRST_ID = 1_000_000_000L;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        itemRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void listCatalog() {
+        insertItems(ITEMS);
+        LongFunction<CursorPage<ItemDto>> entities = this::entityPage;
+        LongFunction<CursorPage<ItemDto>> projections = afterId -> itemService.getAllItems(afterId, PAGE_SIZE);
+        listAll(entities);
+        listAll(projections);
+
+        for (int round = 0; round < ROUNDS; round++) {
+            report("entities", entities);
+            report("projections", projections);
+        }
+    }
+
+    private void report(String path, LongFunction<CursorPage<ItemDto>> pages) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long started = System.nanoTime();
+        int listed = listAll(pages);
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        assertEquals(ITEMS, listed);
+        System.out.printf("path=%s items=%d elapsed=%.2f s throughput=%.0f items/s allocated=%d B/item%n",
+                path, listed, seconds, listed / seconds, allocated / listed);
+    }
+
+    private int listAll(LongFunction<CursorPage<ItemDto>> pages) {
+        int listed = 0;
+        long afterId = 0;
+        CursorPage<ItemDto> page;
+        do {
+            page = pages.apply(afterId);
+            listed += page.getItems().size();
+            if (page.getNextCursor() != null) {
+                afterId = CursorPage.decodeCursor(page.getNextCursor());
+            }
+        } while (page.getNextCursor() != null);
+        return listed;
+    }
+
+    // The previous read path: managed entities in a read-write transaction, copied field by field
+    private CursorPage<ItemDto> entityPage(long afterId) {
+        return transactionTemplate.execute(status -> {
+            List<Item> rows = entityManager
+                    .createQuery("SELECT i FROM Item i WHERE i.id > :afterId ORDER BY i.id", Item.class)
+                    .setParameter("afterId", afterId)
+                    .setMaxResults(PAGE_SIZE + 1)
+                    .getResultList();
+            boolean hasNext = rows.size() > PAGE_SIZE;
+            List<Item> page = hasNext ? rows.subList(0, PAGE_SIZE) : rows;
+            return CursorPage.<ItemDto>builder()
+                    .items(page.stream().map(ItemReadPathBenchmarkTest::toDto).toList())
+                    .nextCursor(hasNext ? CursorPage.encodeCursor(page.get(PAGE_SIZE - 1).getId()) : null)
+                    .build();
+        });
+    }
+
+    private static ItemDto toDto(Item item) {
+        return ItemDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .sku(item.getSku())
+                .price(item.getPrice())
+                .availableQuantity(item.getAvailableQuantity())
+                .reservedQuantity(item.getReservedQuantity())
+                .category(item.getCategory())
+                .brand(item.getBrand())
+                .isActive(item.getIsActive())
+                .createdAt(item.getCreatedAt().toString())
+                .updatedAt(item.getUpdatedAt().toString())
+                .build();
+    }
+
+    private void insertItems(int count) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int batchSize = 10_000;
+        for (int from = 0; from < count; from += batchSize) {
+            List<Object[]> rows = new ArrayList<>(batchSize);
+            for (int i = from; i < Math.min(from + batchSize, count); i++) {
+                rows.add(new Object[]{FIRST_ID + i, "Listed item " + i, "LIST-" + i, "Benchmark", now, now});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO items (id, name, sku, price, available_quantity, reserved_quantity, "
+                    + "category, is_active, created_at, updated_at, version) "
+                    + "VALUES (?, ?, ?, 9.99, 10, 0, ?, true, ?, ?, 0)", rows);
+        }
+    }
+}
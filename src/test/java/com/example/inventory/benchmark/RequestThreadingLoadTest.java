@@ -0,0 +1,217 @@
+package com.example.inventory.benchmark;
+
+import com.example.inventory.InventoryApplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares serving HTTP requests on Tomcat's platform thread pool with serving them on virtual
+ * threads. For each threading mode the application is started on a random port. Clients then keep
+ * {@code load.concurrency} requests in flight for {@code load.seconds}. The mix is item reads and
+ * reservations against {@code load.items} hot items, so request threads spend their time waiting
+ * on row locks and connections. Reports throughput, client-side latency percentiles, peak heap and
+ * peak platform threads, plus virtual thread pins and database permit waits where those are enabled.
+ * Each measured run follows {@code load.warmup-seconds} of the same load.
+ * <p>
+ * Client and server share the JVM, so heap and thread figures include the client; compare them
+ * between modes rather than reading them as absolutes. The virtual mode needs a Java 21 runtime
+ * and is skipped on older ones:
+ * {@code JAVA_HOME=/path/to/jdk21 mvn test -Dbenchmark=true -Dtest=RequestThreadingLoadTest}.
+ * Tunable with {@code load.threading} (e.g. {@code platform,virtual}), {@code load.concurrency},
+ * {@code load.seconds}, {@code load.items} and {@code load.reserve-percent}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RequestThreadingLoadTest {
+
+    private static final String THREADING = System.getProperty("load.threading", "platform,virtual");
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 1000);
+    private static final int SECONDS = Integer.getInteger("load.seconds", 10);
+    private static final int WARMUP_SECONDS = Integer.getInteger("load.warmup-seconds", 20);
+    private static final int ITEMS = Integer.getInteger("load.items", 10);
+    private static final int RESERVE_PERCENT = Integer.getInteger("load.reserve-percent", 20);
+    // Well clear of ids handed out by the item sequence
+    private static final long FIRST_ID = 1_000_000_000L;
+    private static final int STOCK = 1_000_000_000;
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    @Test
+    void compareThreadingModes() throws Exception {
+        for (String threading : THREADING.split(",")) {
+            boolean virtual = threading.trim().equals("virtual");
+            if (virtual && Runtime.version().feature() < 21) {
+                System.out.printf("threading=virtual skipped: needs Java 21, running on %s%n", Runtime.version());
+                continue;
+            }
+            try (ConfigurableApplicationContext context = start(virtual)) {
+                insertItems(context.getBean(JdbcTemplate.class));
+                run(threading.trim(), context);
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext start(boolean virtual) {
+        return new SpringApplicationBuilder(InventoryApplication.class)
+                .profiles("test")
+                // Arguments rather than default properties, which application.yml would override
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--logging.level.com.example.inventory=WARN",
+                        "--logging.level.org.hibernate.SQL=INFO",
+                        "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO");
+    }
+
+    private void run(String threading, ConfigurableApplicationContext context) throws Exception {
+        String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/v1";
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        ThreadPoolExecutor clients = (ThreadPoolExecutor) Executors.newFixedThreadPool(CONCURRENCY);
+        clients.prestartAllCoreThreads();
+        int baseline = threads.getThreadCount();
+        try {
+            // Until the JIT has compiled the request path it, not threading, decides throughput
+            drive(clients, client, base, WARMUP_SECONDS, new Load());
+
+            Load load = new Load();
+            ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+            sampler.scheduleAtFixedRate(() -> {
+                load.peakHeap.accumulate(memory.getHeapMemoryUsage().getUsed());
+                load.peakThreads.accumulate(threads.getThreadCount());
+            }, 0, 50, TimeUnit.MILLISECONDS);
+            long elapsed = drive(clients, client, base, SECONDS, load);
+            sampler.shutdownNow();
+            report(threading, context, load, elapsed, baseline);
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+
+    /**
+     * Has every client thread send requests back to back for {@code seconds}, then waits for the
+     * last of them. Returns the elapsed nanoseconds.
+     */
+    private static long drive(ExecutorService clients, HttpClient client, String base, int seconds, Load load)
+            throws InterruptedException {
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.SECONDS.toNanos(seconds);
+        CountDownLatch done = new CountDownLatch(CONCURRENCY);
+        for (int i = 0; i < CONCURRENCY; i++) {
+            clients.execute(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long requestStarted = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request(base), HttpResponse.BodyHandlers.discarding());
+                            load.record(System.nanoTime() - requestStarted, response.statusCode());
+                        } catch (IOException e) {
+                            load.transportErrors.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(2, TimeUnit.MINUTES), "requests still in flight");
+        return System.nanoTime() - started;
+    }
+
+    private static void report(String threading, ConfigurableApplicationContext context, Load load, long elapsed,
+                               int baselineThreads) {
+        MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+        Timer pinned = meterRegistry.find("inventory.threads.pinned").timer();
+        Timer permitWait = meterRegistry.find("inventory.db.permits.wait").timer();
+        Histogram latency = load.latency;
+        System.out.printf("threading=%s concurrency=%d items=%d seconds=%d%n", threading, CONCURRENCY, ITEMS, SECONDS);
+        System.out.printf("  %d requests, %.0f/s, p50 %.1f ms, p99 %.1f ms, p99.9 %.1f ms, %d failed%n",
+                latency.getTotalCount(), latency.getTotalCount() * 1e9 / elapsed,
+                latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(99) / 1000.0,
+                latency.getValueAtPercentile(99.9) / 1000.0, load.failed.get());
+        // The client threads are started before the baseline is taken
+        System.out.printf("  peak heap %d MB, peak platform threads %d (%d before load)%n",
+                load.peakHeap.get() >> 20, load.peakThreads.get(), baselineThreads);
+        if (pinned != null) {
+            System.out.printf("  virtual thread pins %d, longest %.1f ms%n", pinned.count(), pinned.max(TimeUnit.MILLISECONDS));
+        }
+        if (permitWait != null) {
+            System.out.printf("  database permit wait mean %.1f ms, max %.1f ms%n",
+                    permitWait.mean(TimeUnit.MILLISECONDS), permitWait.max(TimeUnit.MILLISECONDS));
+        }
+        assertEquals(0, load.transportErrors.get(), "requests failed without a response");
+        assertEquals(0, load.failed.get(), "requests answered with an error status");
+    }
+
+    private static HttpRequest request(String base) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long itemId = FIRST_ID + random.nextInt(ITEMS);
+        if (random.nextInt(100) >= RESERVE_PERCENT) {
+            return HttpRequest.newBuilder(URI.create(base + "/api/items/" + itemId)).GET().build();
+        }
+        String body = "{\"itemId\":" + itemId + ",\"customerId\":\"load-" + random.nextInt(10_000)
+                + "\",\"quantity\":1,\"expirationMinutes\":30}";
+        return HttpRequest.newBuilder(URI.create(base + "/api/reservations"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private static void insertItems(JdbcTemplate jdbcTemplate) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            rows.add(new Object[]{FIRST_ID + i, "Load item " + i, "LOAD-" + i, STOCK, now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, sku, price, available_quantity, reserved_quantity, "
+                + "is_active, created_at, updated_at, version) VALUES (?, ?, ?, 9.99, ?, 0, true, ?, ?, 0)", rows);
+    }
+
+    private static class Load {
+
+        final Histogram latency = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 2);
+        final AtomicLong failed = new AtomicLong();
+        final AtomicLong transportErrors = new AtomicLong();
+        final LongAccumulator peakHeap = new LongAccumulator(Math::max, 0);
+        final LongAccumulator peakThreads = new LongAccumulator(Math::max, 0);
+
+        void record(long nanos, int status) {
+            latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), latency.getHighestTrackableValue()));
+            if (status >= 300) {
+                failed.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.inventory.benchmark;
+
+import com.example.inventory.dto.CursorPage;
+import com.example.inventory.dto.ReservationDto;
+import com.example.inventory.entity.Reservation;
+import com.example.inventory.repository.ItemRepository;
+import com.example.inventory.repository.ReservationRepository;
+import com.example.inventory.service.ReservationService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Listing one customer's reservations, each on a different item: entities with their lazy item
+ * read as the JSON serializer did before, against the fetch-joined DTO pages behind
+ * {@link ReservationService}. Reports time and the number of SQL statements per listing.
+ * Run with {@code mvn test -Dbenchmark=true -Dtest=ReservationListingBenchmarkTest}.
+ */
+@SpringBootTest(properties = {
+        "logging.level.org.hibernate.SQL=INFO",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ReservationListingBenchmarkTest {
+
+    private static final int RESERVATIONS = Integer.getInteger("benchmark.reservations", 1_000);
+    private static final int PAGE_SIZE = ReservationService.MAX_PAGE_SIZE;
+    private static final int ROUNDS = 5;
+    private static final String CUSTOMER = "CUST-LIST";
+    // Well clear of ids handed out by the item and reservation sequences
+    private static final long FIRST_ID = 1_000_000_000L;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        reservationRepository.deleteAllInBatch();
+        itemRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void listCustomerReservations() {
+        insertReservations(RESERVATIONS);
+        Supplier<List<ReservationDto>> entities = this::listEntities;
+        Supplier<List<ReservationDto>> projections = this::listPages;
+        entities.get();
+        projections.get();
+
+        // One statement per page, however many items the page spans
+        long expectedPages = (RESERVATIONS + PAGE_SIZE - 1) / PAGE_SIZE;
+        for (int round = 0; round < ROUNDS; round++) {
+            report("entities", entities);
+            long statements = report("projections", projections);
+            assertEquals(expectedPages, statements);
+        }
+    }
+
+    private long report(String path, Supplier<List<ReservationDto>> listing) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long started = System.nanoTime();
+        List<ReservationDto> listed = listing.get();
+        double millis = (System.nanoTime() - started) / 1_000_000.0;
+        long statements = statistics.getPrepareStatementCount();
+
+        assertEquals(RESERVATIONS, listed.size());
+        assertEquals("Listed item " + (RESERVATIONS - 1), listed.get(RESERVATIONS - 1).getItemName());
+        System.out.printf("path=%s reservations=%d elapsed=%.1f ms statements=%d%n",
+                path, listed.size(), millis, statements);
+        return statements;
+    }
+
+    private List<ReservationDto> listPages() {
+        List<ReservationDto> listed = new ArrayList<>(RESERVATIONS);
+        long afterId = 0;
+        CursorPage<ReservationDto> page;
+        do {
+            page = reservationService.getReservationsByCustomer(CUSTOMER, afterId, PAGE_SIZE);
+            listed.addAll(page.getItems());
+            if (page.getNextCursor() != null) {
+                afterId = CursorPage.decodeCursor(page.getNextCursor());
+            }
+        } while (page.getNextCursor() != null);
+        return listed;
+    }
+
+    // The previous read path: the entity list, each lazy item loaded as the serializer reached it
+    private List<ReservationDto> listEntities() {
+        return transactionTemplate.execute(status -> {
+            List<ReservationDto> listed = new ArrayList<>(RESERVATIONS);
+            for (Reservation reservation : reservationRepository.findByCustomerId(CUSTOMER)) {
+                reservation.getItem().getSku();
+                listed.add(ReservationDto.from(reservation));
+            }
+            return listed;
+        });
+    }
+
+    private void insertReservations(int count) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Timestamp expiresAt = Timestamp.valueOf(LocalDateTime.now().plusHours(1));
+        List<Object[]> items = new ArrayList<>(count);
+        List<Object[]> reservations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            items.add(new Object[]{FIRST_ID + i, "Listed item " + i, "RSV-LIST-" + i, now, now});
+            reservations.add(new Object[]{FIRST_ID + i, FIRST_ID + i, CUSTOMER, expiresAt, now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO items (id, name, sku, price, available_quantity, reserved_quantity, "
+                + "category, is_active, created_at, updated_at, version) "
+                + "VALUES (?, ?, ?, 9.99, 9, 1, 'Benchmark', true, ?, ?, 0)", items);
+        jdbcTemplate.batchUpdate("INSERT INTO reservations (id, item_id, customer_id, quantity, status, expires_at, "
+                + "created_at, updated_at, version) VALUES (?, ?, ?, 1, 'ACTIVE', ?, ?, ?, 0)", reservations);
+    }
+}
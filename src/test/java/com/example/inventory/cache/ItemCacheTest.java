@@ -0,0 +1,110 @@
+package com.example.inventory.cache;
+
+import com.example.inventory.dto.ItemDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemCacheTest {
+
+    private ConcurrentMapCacheManager cacheManager;
+    private ItemCache itemCache;
+    private AtomicInteger idLoads;
+    private AtomicInteger skuLoads;
+    private int version;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager = new ConcurrentMapCacheManager();
+        itemCache = new ItemCache(cacheManager);
+        idLoads = new AtomicInteger();
+        skuLoads = new AtomicInteger();
+        version = 1;
+    }
+
+    @Test
+    void getBySku_StoresItemOnceUnderItsId() {
+        getBySku("SKU-1");
+        getBySku("SKU-1");
+        get(1L);
+
+        assertEquals(1, skuLoads.get());
+        assertEquals(1, idLoads.get());
+        // One item entry plus one alias
+        assertEquals(2, ((Map<?, ?>) cacheManager.getCache(ItemCache.CACHE_NAME).getNativeCache()).size());
+    }
+
+    @Test
+    void evict_InvalidatesLookupByIdAndBySku() {
+        getBySku("SKU-1");
+        version = 2;
+
+        itemCache.evict(1L);
+
+        assertEquals(2, getBySku("SKU-1").get().getAvailableQuantity());
+        assertEquals(2, get(1L).get().getAvailableQuantity());
+        // The alias survives eviction, so the reload goes by id
+        assertEquals(1, skuLoads.get());
+        assertEquals(2, idLoads.get());
+    }
+
+    @Test
+    void getBySku_UnknownSku_IsNotCached() {
+        for (int i = 0; i < 2; i++) {
+            assertTrue(itemCache.getBySku("MISSING", id -> Optional.empty(), () -> {
+                skuLoads.incrementAndGet();
+                return Optional.empty();
+            }).isEmpty());
+        }
+
+        // A SKU created later must not be hidden by a cached miss
+        assertEquals(2, skuLoads.get());
+    }
+
+    @Test
+    void getBySku_AliasReadBackAsInteger_StillResolves() {
+        cacheManager.getCache(ItemCache.CACHE_NAME).put(ItemCache.SKU_ALIAS_PREFIX + "SKU-1", 1);
+
+        assertEquals(1L, getBySku("SKU-1").get().getId());
+        assertEquals(0, skuLoads.get());
+        assertEquals(1, idLoads.get());
+    }
+
+    @Test
+    void getBySku_AliasOfItemWithAnotherSku_ResolvedAgain() {
+        // SKU-1 was deleted with item 9 and reused for item 1
+        cacheManager.getCache(ItemCache.CACHE_NAME).put(ItemCache.SKU_ALIAS_PREFIX + "SKU-1", 9L);
+        cacheManager.getCache(ItemCache.CACHE_NAME).put(9L, ItemDto.builder().id(9L).sku("SKU-9").build());
+
+        assertEquals(1L, getBySku("SKU-1").get().getId());
+        assertEquals(1L, cacheManager.getCache(ItemCache.CACHE_NAME).get(ItemCache.SKU_ALIAS_PREFIX + "SKU-1").get());
+        assertEquals(1, skuLoads.get());
+    }
+
+    private Optional<ItemDto> get(Long id) {
+        return itemCache.get(id, () -> {
+            idLoads.incrementAndGet();
+            return Optional.of(item());
+        });
+    }
+
+    private Optional<ItemDto> getBySku(String sku) {
+        return itemCache.getBySku(sku, id -> {
+            idLoads.incrementAndGet();
+            return Optional.of(item());
+        }, () -> {
+            skuLoads.incrementAndGet();
+            return Optional.of(1L);
+        });
+    }
+
+    private ItemDto item() {
+        return ItemDto.builder().id(1L).sku("SKU-1").availableQuantity(version).build();
+    }
+}
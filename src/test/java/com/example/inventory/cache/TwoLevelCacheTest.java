@@ -0,0 +1,360 @@
+package com.example.inventory.cache;
+
+import com.example.inventory.config.InventoryCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TwoLevelCacheTest {
+
+    private static final long REMOTE_LATENCY_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    private RemoteStandIn remote;
+    private List<TwoLevelCacheManager> nodes;
+
+    @BeforeEach
+    void setUp() {
+        remote = new RemoteStandIn();
+        nodes = new CopyOnWriteArrayList<>();
+    }
+
+    @Test
+    void get_SecondReadServedFromLocalCache() {
+        Cache cache = node().getCache("items");
+        remote.getCache("items").put(1L, "item-1");
+
+        assertEquals("item-1", cache.get(1L).get());
+        assertEquals("item-1", cache.get(1L).get());
+
+        assertEquals(1, remote.reads.get());
+    }
+
+    @Test
+    void get_WithLoader_LoadsOnceAndWritesThrough() {
+        Cache cache = node().getCache("items");
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("item-1", cache.get(1L, () -> "item-" + loads.incrementAndGet()));
+        assertEquals("item-1", cache.get(1L, () -> "item-" + loads.incrementAndGet()));
+
+        assertEquals(1, loads.get());
+        assertEquals("item-1", remote.getCache("items").get(1L).get());
+    }
+
+    @Test
+    void get_ConcurrentMissesAfterEviction_HitDatabaseOncePerEviction() throws Exception {
+        Cache cache = node().getCache("items");
+        AtomicInteger dbQueries = new AtomicInteger();
+        int readers = 32;
+        int evictions = 5;
+        ExecutorService executor = Executors.newFixedThreadPool(readers);
+        try {
+            for (int round = 0; round < evictions; round++) {
+                cache.evict(1L);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Object>> results = new ArrayList<>();
+                for (int i = 0; i < readers; i++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return cache.get(1L, () -> {
+                            dbQueries.incrementAndGet();
+                            Thread.sleep(50);
+                            return "item-1";
+                        });
+                    }));
+                }
+                start.countDown();
+                for (Future<Object> result : results) {
+                    assertEquals("item-1", result.get(5, TimeUnit.SECONDS));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(evictions, dbQueries.get());
+        assertEquals(0, ((TwoLevelCache) cache).inFlightLoads());
+    }
+
+    @Test
+    void metrics_CountReadsByLevelAndEvictionsBySource() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        TwoLevelCacheManager manager = node();
+        manager.setMeterRegistry(meterRegistry);
+        TwoLevelCacheManager other = node();
+        Cache cache = manager.getCache("items");
+        remote.getCache("items").put(1L, "item-1");
+
+        cache.get(1L, () -> "unused");
+        cache.get(1L, () -> "unused");
+        cache.get(2L, () -> "item-2");
+        assertNull(cache.get(3L));
+        other.getCache("items").evict(1L);
+        cache.evict(2L);
+
+        assertEquals(1, gets(meterRegistry, "hit", "remote"));
+        assertEquals(1, gets(meterRegistry, "hit", "local"));
+        assertEquals(1, gets(meterRegistry, "miss", "loader"));
+        assertEquals(1, gets(meterRegistry, "miss", "remote"));
+        assertEquals(1, meterRegistry.get("inventory.cache.evictions").tags("cache", "items", "source", "remote")
+                .counter().count());
+        assertEquals(1, meterRegistry.get("inventory.cache.evictions").tags("cache", "items", "source", "local")
+                .counter().count());
+    }
+
+    @Test
+    void putIfAbsent_FillsBothLevelsWithoutInvalidatingOtherNodes() {
+        List<Object> published = new ArrayList<>();
+        Cache cache = new TwoLevelCacheManager(remote, (name, key) -> published.add(key), localProperties())
+                .getCache("items");
+
+        assertNull(cache.putIfAbsent("sku:SKU-1", 1L));
+        assertEquals(1L, cache.putIfAbsent("sku:SKU-1", 2L).get());
+
+        assertEquals(1L, remote.getCache("items").get("sku:SKU-1").get());
+        assertEquals(1L, cache.get("sku:SKU-1").get());
+        assertTrue(published.isEmpty());
+    }
+
+    @Test
+    void get_EvictedWhileLoading_DoesNotKeepLoadedValue() {
+        Cache cache = node().getCache("items");
+
+        assertEquals("v1", cache.get(1L, () -> {
+            // A write lands while the old value is being read
+            cache.evict(1L);
+            return "v1";
+        }));
+
+        assertEquals("v2", cache.get(1L, () -> "v2"));
+    }
+
+    @Test
+    void get_LoaderFails_NextReaderRetries() {
+        Cache cache = node().getCache("items");
+
+        assertThrows(Cache.ValueRetrievalException.class, () -> cache.get(1L, () -> {
+            throw new IllegalStateException("database down");
+        }));
+
+        assertEquals("v1", cache.get(1L, () -> "v1"));
+    }
+
+    @Test
+    void get_StaleWhileRevalidate_ServesStaleValueAndRefreshesOnce() {
+        InventoryCacheProperties.Local properties = localProperties();
+        properties.setStaleWhileRevalidate(true);
+        List<Runnable> refreshes = new ArrayList<>();
+        Cache cache = new TwoLevelCacheManager(remote, (name, key) -> { }, properties, refreshes::add)
+                .getCache("items");
+        AtomicInteger dbQueries = new AtomicInteger();
+        cache.put(1L, "v1");
+        cache.evict(1L);
+
+        assertEquals("v1", cache.get(1L, () -> "v" + (1 + dbQueries.incrementAndGet())));
+        assertEquals(0, dbQueries.get());
+        refreshes.forEach(Runnable::run);
+
+        assertEquals(1, dbQueries.get());
+        assertEquals("v2", cache.get(1L, () -> "v" + (1 + dbQueries.incrementAndGet())));
+        assertEquals(1, dbQueries.get());
+    }
+
+    @Test
+    void evict_InvalidatesLocalCopiesOnOtherNodes() {
+        TwoLevelCacheManager first = node();
+        TwoLevelCacheManager second = node();
+        first.getCache("items").put(1L, "v1");
+        assertEquals("v1", second.getCache("items").get(1L).get());
+
+        remote.getCache("items").put(1L, "v2");
+        first.getCache("items").evict(1L);
+
+        assertNull(first.getCache("items").get(1L));
+        assertNull(second.getCache("items").get(1L));
+    }
+
+    @Test
+    void clear_InvalidatesAllLocalCopiesOnOtherNodes() {
+        TwoLevelCacheManager first = node();
+        TwoLevelCacheManager second = node();
+        second.getCache("items").put("SKU-1", "v1");
+
+        first.getCache("items").clear();
+
+        assertNull(second.getCache("items").get("SKU-1"));
+    }
+
+    @Test
+    void redisBus_RoundTripsInvalidationToOtherNodesOnly() {
+        TwoLevelCacheManager manager = new TwoLevelCacheManager(remote, (name, key) -> { }, localProperties());
+        RedisCacheInvalidationBus sender = new RedisCacheInvalidationBus(redisTemplate, "channel");
+        RedisCacheInvalidationBus receiver = new RedisCacheInvalidationBus(redisTemplate, "channel");
+        receiver.setCacheManager(manager);
+        sender.setCacheManager(manager);
+        manager.getCache("items").put(42L, "v1");
+        remote.getCache("items").evict(42L);
+
+        sender.publish("items", 42L);
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq("channel"), message.capture());
+
+        // The sender ignores its own message
+        sender.onMessage(message(message.getValue()), null);
+        assertNotNull(manager.getCache("items").get(42L));
+
+        // Keys arrive as strings; numeric keys are matched in their Long form
+        receiver.onMessage(message(message.getValue()), null);
+        assertNull(manager.getCache("items").get(42L));
+    }
+
+    @Test
+    void redisBus_EvictAll_SendsOneMessageForAllKeys() {
+        TwoLevelCacheManager sending = new TwoLevelCacheManager(remote,
+                new RedisCacheInvalidationBus(redisTemplate, "channel"), localProperties());
+        TwoLevelCacheManager receiving = new TwoLevelCacheManager(remote, (name, key) -> { }, localProperties());
+        RedisCacheInvalidationBus receiver = new RedisCacheInvalidationBus(redisTemplate, "channel");
+        receiver.setCacheManager(receiving);
+        AtomicInteger remoteBatches = new AtomicInteger();
+        sending.setRemoteEvictor((remoteCache, keys) -> {
+            remoteBatches.incrementAndGet();
+            RemoteCacheEvictor.PER_KEY.evictAll(remoteCache, keys);
+        });
+        for (long id = 1; id <= 3; id++) {
+            sending.getCache("items").put(id, "item-" + id);
+            receiving.getCache("items").get(id);
+        }
+
+        clearInvocations(redisTemplate);
+
+        ((TwoLevelCache) sending.getCache("items")).evictAll(List.of(1L, 2L));
+        ArgumentCaptor<String> message = ArgumentCaptor.forClass(String.class);
+        verify(redisTemplate).convertAndSend(eq("channel"), message.capture());
+        receiver.onMessage(message(message.getValue()), null);
+
+        assertEquals(1, remoteBatches.get());
+        assertNull(remote.getCache("items").get(1L));
+        assertNull(sending.getCache("items").get(2L));
+        assertNull(receiving.getCache("items").get(1L));
+        assertNull(receiving.getCache("items").get(2L));
+        assertNotNull(receiving.getCache("items").get(3L));
+    }
+
+    @Test
+    void redisBus_PublishFailure_DoesNotPropagate() {
+        RedisCacheInvalidationBus bus = new RedisCacheInvalidationBus(redisTemplate, "channel");
+        doThrow(new RuntimeException("connection refused")).when(redisTemplate).convertAndSend(anyString(), anyString());
+
+        assertDoesNotThrow(() -> bus.publish("items", 1L));
+    }
+
+    @Test
+    void localHit_IsFasterThanRemoteRoundTrip() {
+        Cache twoLevel = node().getCache("items");
+        Cache remoteOnly = remote.getCache("items");
+        for (long id = 0; id < 100; id++) {
+            twoLevel.put(id, "item-" + id);
+        }
+        int reads = 2000;
+
+        long remoteNanos = time(remoteOnly, reads);
+        long localNanos = time(twoLevel, reads);
+
+        System.out.printf("Cache hit latency: remote %d ns, two-level %d ns (%.0fx)%n",
+                remoteNanos / reads, localNanos / reads, (double) remoteNanos / localNanos);
+        assertTrue(localNanos * 10 < remoteNanos,
+                "Expected local hits to be at least 10x faster than remote hits");
+    }
+
+    private long time(Cache cache, int reads) {
+        long start = System.nanoTime();
+        for (int i = 0; i < reads; i++) {
+            assertNotNull(cache.get((long) (i % 100)));
+        }
+        return System.nanoTime() - start;
+    }
+
+    // Each node publishes straight to the local caches of every other node
+    private TwoLevelCacheManager node() {
+        TwoLevelCacheManager[] self = new TwoLevelCacheManager[1];
+        self[0] = new TwoLevelCacheManager(remote, (name, key) -> nodes.stream()
+                .filter(node -> node != self[0])
+                .forEach(node -> ((TwoLevelCache) node.getCache(name))
+                        .invalidateLocal(key != null ? key.toString() : null)),
+                localProperties());
+        nodes.add(self[0]);
+        return self[0];
+    }
+
+    private static double gets(SimpleMeterRegistry meterRegistry, String result, String level) {
+        return meterRegistry.get("inventory.cache.gets").tags("cache", "items", "result", result, "level", level)
+                .counter().count();
+    }
+
+    private static InventoryCacheProperties.Local localProperties() {
+        return new InventoryCacheProperties().getLocal();
+    }
+
+    private static DefaultMessage message(String body) {
+        return new DefaultMessage("channel".getBytes(StandardCharsets.UTF_8), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Shared in-memory stand-in for Redis. Reads pay a simulated network round trip.
+     */
+    private static class RemoteStandIn implements CacheManager {
+
+        private final ConcurrentHashMap<String, Cache> caches = new ConcurrentHashMap<>();
+        private final AtomicInteger reads = new AtomicInteger();
+
+        @Override
+        public Cache getCache(String name) {
+            return caches.computeIfAbsent(name, n -> new ConcurrentMapCache(n) {
+                @Override
+                protected Object lookup(Object key) {
+                    reads.incrementAndGet();
+                    LockSupport.parkNanos(REMOTE_LATENCY_NANOS);
+                    return super.lookup(key);
+                }
+            });
+        }
+
+        @Override
+        public List<String> getCacheNames() {
+            return List.copyOf(caches.keySet());
+        }
+    }
+}
@@ -1,24 +1,44 @@
 package com.example.inventory.controller;
 
+import com.example.inventory.dto.AvailabilityRequest;
+import com.example.inventory.dto.AvailabilityResult;
+import com.example.inventory.dto.BulkImportResult;
+import com.example.inventory.dto.BulkSupplyResult;
+import com.example.inventory.dto.CatalogFacets;
+import com.example.inventory.dto.CatalogFilter;
+import com.example.inventory.dto.CatalogPage;
 import com.example.inventory.dto.CreateItemRequest;
+import com.example.inventory.dto.CursorPage;
 import com.example.inventory.dto.ItemDto;
+import com.example.inventory.dto.ItemSearchHit;
 import com.example.inventory.entity.Item;
+import com.example.inventory.service.ItemImportService;
 import com.example.inventory.service.ItemService;
+import com.example.inventory.service.ItemSupplyService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
@@ -34,6 +54,12 @@ class ItemControllerTest {
     @MockBean
     private ItemService itemService;
 
+    @MockBean
+    private ItemImportService itemImportService;
+
+    @MockBean
+    private ItemSupplyService itemSupplyService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -113,6 +139,57 @@ class ItemControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void importItemsCsv_ReturnsReport() throws Exception {
+        when(itemImportService.importCsv(any(InputStream.class))).thenReturn(BulkImportResult.builder()
+                .received(2)
+                .imported(1)
+                .errors(List.of(new BulkImportResult.RowError(2, "SKU-2", "Price must be positive")))
+                .build());
+
+        mockMvc.perform(post("/api/items/import")
+                        .contentType("text/csv")
+                        .content("sku,name,price,availableQuantity\nSKU-1,Item 1,9.99,1\nSKU-2,Item 2,-1,1\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.errors[0].row").value(2))
+                .andExpect(jsonPath("$.errors[0].message").value("Price must be positive"));
+    }
+
+    @Test
+    void importItemsNdjson_ReturnsReport() throws Exception {
+        when(itemImportService.importNdjson(any(InputStream.class))).thenReturn(BulkImportResult.builder()
+                .received(1)
+                .imported(1)
+                .errors(List.of())
+                .build());
+
+        mockMvc.perform(post("/api/items/import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"sku\":\"SKU-1\",\"name\":\"Item 1\",\"price\":9.99,\"availableQuantity\":1}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+    }
+
+    @Test
+    void addSupplyCsv_ReturnsPerSkuResults() throws Exception {
+        when(itemSupplyService.supplyCsv(any(InputStream.class))).thenReturn(BulkSupplyResult.builder()
+                .received(2)
+                .applied(1)
+                .results(List.of(new BulkSupplyResult.SkuResult("SKU-1", 5, true, null),
+                        new BulkSupplyResult.SkuResult("SKU-9", 1, false, "Item not found with SKU: SKU-9")))
+                .errors(List.of())
+                .build());
+
+        mockMvc.perform(post("/api/items/supply")
+                        .contentType("text/csv")
+                        .content("sku,quantity\nSKU-1,5\nSKU-9,1\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.applied").value(1))
+                .andExpect(jsonPath("$.results[1].sku").value("SKU-9"))
+                .andExpect(jsonPath("$.results[1].applied").value(false));
+    }
+
     @Test
     void getItemById_Success() throws Exception {
         when(itemService.getItemById(1L)).thenReturn(Optional.of(itemDto));
@@ -150,21 +227,136 @@ class ItemControllerTest {
 
     @Test
     void getAllItems_Success() throws Exception {
-        when(itemService.getAllItems()).thenReturn(Arrays.asList(itemDto));
+        when(itemService.getAllItems(0L, 50)).thenReturn(new CursorPage<>(List.of(itemDto), "MQ"));
 
         mockMvc.perform(get("/api/items"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1))
-                .andExpect(jsonPath("$[0].name").value("iPhone 15 Pro"));
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[0].name").value("iPhone 15 Pro"))
+                .andExpect(jsonPath("$.nextCursor").value("MQ"));
+    }
+
+    @Test
+    void getAllItems_WithCursor_ContinuesAfterDecodedId() throws Exception {
+        when(itemService.getAllItems(1L, 20)).thenReturn(new CursorPage<>(List.of(), null));
+
+        mockMvc.perform(get("/api/items")
+                        .param("cursor", CursorPage.encodeCursor(1L))
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty())
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    void getAllItems_InvalidCursor_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/items").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
     void getAvailableItems_Success() throws Exception {
-        when(itemService.getAvailableItems()).thenReturn(Arrays.asList(itemDto));
+        when(itemService.getAvailableItems(0L, 50)).thenReturn(new CursorPage<>(List.of(itemDto), null));
 
         mockMvc.perform(get("/api/items/available"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1));
+                .andExpect(jsonPath("$.items[0].id").value(1));
+    }
+
+    @Test
+    void getItemsByBrand_Success() throws Exception {
+        when(itemService.getItemsByBrand("Apple", 0L, 50)).thenReturn(new CursorPage<>(List.of(itemDto), null));
+
+        mockMvc.perform(get("/api/items/brand/Apple"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].brand").value("Apple"));
+    }
+
+    @Test
+    void browseItems_BindsRepeatedFacetValues() throws Exception {
+        CatalogFilter filter = CatalogFilter.builder()
+                .categories(Set.of("Electronics", "Audio"))
+                .brands(Set.of("Apple"))
+                .inStock(true)
+                .build();
+        CatalogPage page = CatalogPage.builder()
+                .items(List.of(itemDto))
+                .total(1)
+                .facets(CatalogFacets.builder().categories(Map.of("Electronics", 1L)).brands(Map.of("Apple", 1L))
+                        .active(1).inStock(1).build())
+                .build();
+        when(itemService.browseItems(filter, 0L, 50)).thenReturn(Optional.of(page));
+
+        mockMvc.perform(get("/api/items/browse")
+                        .param("category", "Electronics", "Audio")
+                        .param("brand", "Apple")
+                        .param("inStock", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.total").value(1))
+                .andExpect(jsonPath("$.facets.categories.Electronics").value(1));
+    }
+
+    @Test
+    void browseItems_IndexNotBuilt_ReturnsServiceUnavailable() throws Exception {
+        when(itemService.browseItems(any(), eq(0L), eq(50))).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/items/browse"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void searchItems_ReturnsRankedHits() throws Exception {
+        when(itemService.searchItems("iphone pro", 5)).thenReturn(Optional.of(List.of(new ItemSearchHit(itemDto, 2.5f))));
+
+        mockMvc.perform(get("/api/items/search").param("q", "iphone pro").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].item.id").value(1))
+                .andExpect(jsonPath("$[0].score").value(2.5));
+    }
+
+    @Test
+    void searchItems_BlankQuery_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/items/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportItems_StreamsNdjson() throws Exception {
+        when(itemService.exportItems(any(OutputStream.class))).thenAnswer(invocation -> {
+            invocation.getArgument(0, OutputStream.class).write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/items/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().string("{\"id\":1}\n"));
+    }
+
+    @Test
+    void exportItems_AcceptsGzip_CompressesBody() throws Exception {
+        when(itemService.exportItems(any(OutputStream.class))).thenAnswer(invocation -> {
+            invocation.getArgument(0, OutputStream.class).write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/items/export").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals("{\"id\":1}\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
     }
 
     @Test
@@ -196,4 +388,27 @@ class ItemControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("false"));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void checkAvailabilityBatch_ReturnsCompactMap() throws Exception {
+        when(itemService.checkAvailability(any(AvailabilityRequest.class))).thenReturn(AvailabilityResult.builder()
+                .items(Map.of(1L, true))
+                .skus(Map.of("SKU-2", false))
+                .build());
+
+        mockMvc.perform(post("/api/items/availability")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"lines\":[{\"itemId\":1,\"quantity\":2},{\"sku\":\"SKU-2\",\"quantity\":1}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.1").value(true))
+                .andExpect(jsonPath("$.skus.SKU-2").value(false));
+    }
+
+    @Test
+    void checkAvailabilityBatch_LineWithIdAndSku_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post("/api/items/availability")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"lines\":[{\"itemId\":1,\"sku\":\"SKU-1\",\"quantity\":2}]}"))
+                .andExpect(status().isBadRequest());
+    }
+}
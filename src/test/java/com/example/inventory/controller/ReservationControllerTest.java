@@ -1,5 +1,8 @@
 package com.example.inventory.controller;
 
+import com.example.inventory.dto.CartReservationRequest;
+import com.example.inventory.dto.CursorPage;
+import com.example.inventory.dto.ReservationDto;
 import com.example.inventory.dto.ReservationRequest;
 import com.example.inventory.entity.Item;
 import com.example.inventory.entity.Reservation;
@@ -15,12 +18,16 @@ import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -85,7 +92,8 @@ class ReservationControllerTest {
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.customerId").value("CUST-001"))
-                .andExpect(jsonPath("$.quantity").value(2));
+                .andExpect(jsonPath("$.quantity").value(2))
+                .andExpect(jsonPath("$.itemSku").value("IPHONE-15-PRO-256"));
     }
 
     @Test
@@ -102,6 +110,35 @@ class ReservationControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void createReservations_Success() throws Exception {
+        CartReservationRequest cart = CartReservationRequest.builder()
+                .customerId("CUST-001")
+                .lines(List.of(new CartReservationRequest.CartLine(1L, 2)))
+                .build();
+        when(reservationService.createReservations(any(CartReservationRequest.class))).thenReturn(List.of(testReservation));
+
+        mockMvc.perform(post("/api/reservations/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cart)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].quantity").value(2));
+    }
+
+    @Test
+    void createReservations_EmptyCart_ReturnsBadRequest() throws Exception {
+        CartReservationRequest cart = CartReservationRequest.builder()
+                .customerId("CUST-001")
+                .lines(List.of())
+                .build();
+
+        mockMvc.perform(post("/api/reservations/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cart)))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void cancelReservation_Success() throws Exception {
         mockMvc.perform(delete("/api/reservations/1"))
@@ -111,27 +148,48 @@ class ReservationControllerTest {
 
     @Test
     void getReservationsByCustomer_Success() throws Exception {
-        when(reservationService.getReservationsByCustomer("CUST-001")).thenReturn(Arrays.asList(testReservation));
+        when(reservationService.getReservationsByCustomer("CUST-001", 0L, ReservationService.DEFAULT_PAGE_SIZE))
+                .thenReturn(page(ReservationDto.from(testReservation), "MQ"));
 
         mockMvc.perform(get("/api/reservations/customer/CUST-001"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1))
-                .andExpect(jsonPath("$[0].customerId").value("CUST-001"));
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[0].customerId").value("CUST-001"))
+                .andExpect(jsonPath("$.nextCursor").value("MQ"));
+    }
+
+    @Test
+    void getReservationsByCustomer_InvalidCursor_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/reservations/customer/CUST-001").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(reservationService);
     }
 
     @Test
     void getReservationsByItem_Success() throws Exception {
-        when(reservationService.getReservationsByItem(1L)).thenReturn(Arrays.asList(testReservation));
+        String cursor = CursorPage.encodeCursor(7L);
+        when(reservationService.getReservationsByItem(1L, 7L, 20))
+                .thenReturn(page(ReservationDto.from(testReservation), null));
 
-        mockMvc.perform(get("/api/reservations/item/1"))
+        mockMvc.perform(get("/api/reservations/item/1").param("cursor", cursor).param("size", "20"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1))
-                .andExpect(jsonPath("$[0].item.id").value(1));
+                .andExpect(jsonPath("$.items[0].id").value(1))
+                .andExpect(jsonPath("$.items[0].itemId").value(1))
+                .andExpect(jsonPath("$.items[0].itemName").value("iPhone 15 Pro"));
+    }
+
+    @Test
+    void getReservationsByItem_InvalidCursor_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/reservations/item/1").param("cursor", "not a cursor"))
+                .andExpect(status().isBadRequest());
+
+        verify(reservationService, never()).getReservationsByItem(any(), anyLong(), anyInt());
     }
 
     @Test
     void getReservation_Success() throws Exception {
-        when(reservationService.getReservation(1L)).thenReturn(Optional.of(testReservation));
+        when(reservationService.getReservation(1L)).thenReturn(Optional.of(ReservationDto.from(testReservation)));
 
         mockMvc.perform(get("/api/reservations/1"))
                 .andExpect(status().isOk())
@@ -146,4 +204,11 @@ class ReservationControllerTest {
         mockMvc.perform(get("/api/reservations/1"))
                 .andExpect(status().isNotFound());
     }
+
+    private static CursorPage<ReservationDto> page(ReservationDto reservation, String nextCursor) {
+        return CursorPage.<ReservationDto>builder()
+                .items(List.of(reservation))
+                .nextCursor(nextCursor)
+                .build();
+    }
 } 
\ No newline at end of file
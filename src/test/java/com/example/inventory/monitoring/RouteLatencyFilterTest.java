@@ -0,0 +1,61 @@
+package com.example.inventory.monitoring;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockAsyncContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class RouteLatencyFilterTest {
+
+    @Mock
+    private RouteLatencyRecorder recorder;
+
+    @InjectMocks
+    private RouteLatencyFilter filter;
+
+    @Test
+    void doFilter_RecordsMatchedPatternAfterHandler() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/items/42");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) ->
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/items/{id}"));
+
+        verify(recorder).record(eq("GET"), eq("/api/items/{id}"), anyLong());
+    }
+
+    @Test
+    void doFilter_RecordsUnmatchedRequestWithoutPattern() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/missing");
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> { });
+
+        verify(recorder).record(eq("GET"), isNull(), anyLong());
+    }
+
+    @Test
+    void doFilter_RecordsAsyncRequestWhenItCompletes() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/items/export");
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/items/export");
+            req.startAsync();
+        });
+        verifyNoInteractions(recorder);
+
+        ((MockAsyncContext) request.getAsyncContext()).complete();
+        verify(recorder).record(eq("GET"), eq("/api/items/export"), anyLong());
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.inventory.monitoring;
+
+import com.example.inventory.config.LatencyProperties;
+import com.example.inventory.dto.LatencyReport;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteLatencyRecorderTest {
+
+    private static final String RESERVE = "POST /api/reservations";
+
+    private SimpleMeterRegistry meterRegistry;
+    private RouteLatencyRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        LatencyProperties properties = new LatencyProperties();
+        properties.setSlices(3);
+        properties.setDefaultSloMs(500);
+        properties.setSloMs(Map.of(RESERVE, 100L));
+        meterRegistry = new SimpleMeterRegistry();
+        recorder = new RouteLatencyRecorder(properties, meterRegistry);
+    }
+
+    @Test
+    void report_GivesPercentilesAndBreachesPerRoute() {
+        for (int i = 1; i <= 1000; i++) {
+            recorder.record("POST", "/api/reservations", millis(i % 100 == 0 ? 150 : 10));
+        }
+        recorder.record("GET", "/api/items/{id}", millis(150));
+        recorder.rotate();
+
+        LatencyReport report = recorder.report();
+        assertEquals(30, report.getWindowSeconds());
+        LatencyReport.Route reserve = report.getRoutes().get(RESERVE);
+        assertEquals(1000, reserve.getCount());
+        assertEquals(10, reserve.getP50(), 0.1);
+        assertEquals(150, reserve.getP999(), 1.5);
+        assertEquals(100, reserve.getSloMs());
+        assertEquals(10, reserve.getSloBreaches());
+        assertEquals(10, reserve.getTotalSloBreaches());
+
+        LatencyReport.Route item = report.getRoutes().get("GET /api/items/{id}");
+        assertEquals(500, item.getSloMs());
+        assertEquals(0, item.getSloBreaches());
+    }
+
+    @Test
+    void record_UnknownMethodOrCatchAllPattern_CountedAsUnmatched() {
+        for (int i = 0; i < 100; i++) {
+            recorder.record("FOO" + i, "/api/items/{id}", millis(10));
+            recorder.record("GET", "/**", millis(10));
+        }
+        recorder.rotate();
+
+        Map<String, LatencyReport.Route> routes = recorder.report().getRoutes();
+        assertEquals(List.of(RouteLatencyRecorder.UNMATCHED), List.copyOf(routes.keySet()));
+        assertEquals(200, routes.get(RouteLatencyRecorder.UNMATCHED).getCount());
+        assertEquals(1, meterRegistry.find("inventory.http.slo.breaches").meters().size());
+    }
+
+    @Test
+    void report_CoversClosedSlicesOnly() {
+        recorder.record("POST", "/api/reservations", millis(10));
+
+        assertEquals(0, recorder.report().getRoutes().get(RESERVE).getCount());
+        assertEquals(1, recorder.report().getRoutes().get(RESERVE).getTotalCount());
+
+        recorder.rotate();
+        assertEquals(1, recorder.report().getRoutes().get(RESERVE).getCount());
+    }
+
+    @Test
+    void rotate_DropsSlicesThatLeaveTheWindow() {
+        recorder.record("POST", "/api/reservations", millis(200));
+        recorder.rotate();
+        recorder.record("POST", "/api/reservations", millis(10));
+        recorder.rotate();
+        recorder.rotate();
+        assertEquals(2, recorder.report().getRoutes().get(RESERVE).getCount());
+
+        recorder.rotate();
+
+        LatencyReport.Route reserve = recorder.report().getRoutes().get(RESERVE);
+        assertEquals(1, reserve.getCount());
+        assertEquals(0, reserve.getSloBreaches());
+        assertEquals(2, reserve.getTotalCount());
+        assertEquals(1, reserve.getTotalSloBreaches());
+    }
+
+    @Test
+    void record_UnmatchedRequestsShareOneRoute() {
+        recorder.record("GET", null, millis(1));
+        recorder.record("PROPFIND", null, millis(1));
+        recorder.rotate();
+
+        Map<String, LatencyReport.Route> routes = recorder.report().getRoutes();
+        assertEquals(List.of(RouteLatencyRecorder.UNMATCHED), List.copyOf(routes.keySet()));
+        assertEquals(2, routes.get(RouteLatencyRecorder.UNMATCHED).getCount());
+    }
+
+    @Test
+    void record_PublishesBreachCounterPerRoute() {
+        recorder.record("POST", "/api/reservations", millis(150));
+        recorder.record("POST", "/api/reservations", millis(50));
+
+        assertEquals(1, meterRegistry.get("inventory.http.slo.breaches").tag("route", RESERVE)
+                .functionCounter().count());
+    }
+
+    @Test
+    void record_ClampsLatencyAboveTrackableRange() {
+        recorder.record("POST", "/api/reservations", TimeUnit.HOURS.toNanos(2));
+        recorder.rotate();
+
+        LatencyReport.Route reserve = recorder.report().getRoutes().get(RESERVE);
+        assertEquals(60_000, reserve.getMax(), 600);
+        assertEquals(1, reserve.getTotalSloBreaches());
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
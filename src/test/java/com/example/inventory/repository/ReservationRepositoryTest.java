@@ -0,0 +1,39 @@
+package com.example.inventory.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationRepositoryTest {
+
+    @Test
+    void findExpiredReservationsForUpdate_SkipsLockedRows() throws Exception {
+        assertSkipsLockedRows(ReservationRepository.class.getMethod("findExpiredReservationsForUpdate",
+                LocalDateTime.class, Pageable.class));
+    }
+
+    @Test
+    void findExpiredReservationsByIdForUpdate_SkipsLockedRows() throws Exception {
+        assertSkipsLockedRows(ReservationRepository.class.getMethod("findExpiredReservationsByIdForUpdate",
+                Collection.class, LocalDateTime.class));
+    }
+
+    // Without the hint a second node's sweep would queue behind the first instead of taking other rows
+    private static void assertSkipsLockedRows(Method query) {
+        assertEquals(LockModeType.PESSIMISTIC_WRITE, query.getAnnotation(Lock.class).value());
+        QueryHint[] hints = query.getAnnotation(QueryHints.class).value();
+        assertTrue(Arrays.stream(hints).anyMatch(hint -> hint.name().equals("jakarta.persistence.lock.timeout")
+                && hint.value().equals(ReservationRepository.SKIP_LOCKED)));
+        assertEquals("-2", ReservationRepository.SKIP_LOCKED);
+    }
+}
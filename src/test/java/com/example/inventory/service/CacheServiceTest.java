@@ -0,0 +1,71 @@
+package com.example.inventory.service;
+
+import com.example.inventory.cache.ItemCache;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CacheServiceTest {
+
+    @Mock
+    private CacheManager cacheManager;
+
+    @Mock
+    private ItemCache itemCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @InjectMocks
+    private CacheService cacheService;
+
+    @Test
+    void evictItemCache_InTransaction_EvictsOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cacheService.evictItemCache(1L);
+            verify(itemCache, never()).evict(any());
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(itemCache).evict(1L);
+        verify(eventPublisher).publishEvent(ItemsChangedEvent.of(1L));
+    }
+
+    @Test
+    void evictItemCaches_RolledBack_LeavesCacheAlone() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cacheService.evictItemCaches(List.of(1L, 2L));
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(itemCache, never()).evictAll(any());
+    }
+
+    @Test
+    void evictItemCache_OutsideTransaction_EvictsImmediately() {
+        cacheService.evictItemCache(1L);
+
+        verify(itemCache).evict(1L);
+    }
+}
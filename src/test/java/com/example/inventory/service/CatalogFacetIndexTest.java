@@ -0,0 +1,156 @@
+package com.example.inventory.service;
+
+import com.example.inventory.dto.CatalogFilter;
+import com.example.inventory.repository.ItemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogFacetIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CatalogFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        index = new CatalogFacetIndex(itemRepository, meterRegistry);
+    }
+
+    @Test
+    void select_OrWithinFacetAndAcrossFacets() {
+        build(facet(1L, "Phones", "Apple", true, 5),
+                facet(2L, "Phones", "Samsung", true, 0),
+                facet(3L, "Laptops", "Apple", true, 2),
+                facet(4L, "Laptops", "Dell", false, 7),
+                facet(5L, "Audio", "Apple", true, 1));
+
+        CatalogFacetIndex.Selection selection = index.select(CatalogFilter.builder()
+                .categories(Set.of("Phones", "Laptops"))
+                .brands(Set.of("Apple", "Dell"))
+                .inStock(true)
+                .build(), 0L, 10);
+
+        assertEquals(List.of(1L, 3L, 4L), selection.itemIds());
+        assertEquals(3, selection.total());
+        assertEquals(Map.of("Phones", 1L, "Laptops", 2L), selection.facets().getCategories());
+        assertEquals(Map.of("Apple", 2L, "Dell", 1L), selection.facets().getBrands());
+        assertEquals(2, selection.facets().getActive());
+        assertEquals(3, selection.facets().getInStock());
+        assertEquals(List.of(4L), index.select(CatalogFilter.builder().active(false).build(), 0L, 10).itemIds());
+        assertTrue(index.select(CatalogFilter.builder().brands(Set.of("Unknown")).build(), 0L, 10).itemIds().isEmpty());
+    }
+
+    @Test
+    void select_PagesAfterIdButCountsEveryMatch() {
+        build(facet(3L, "Phones", "Apple", true, 1),
+                facet(8L, "Phones", "Apple", true, 1),
+                facet(12L, "Phones", "Apple", true, 1));
+
+        CatalogFacetIndex.Selection selection = index.select(new CatalogFilter(), 3L, 1);
+
+        assertEquals(List.of(8L), selection.itemIds());
+        assertEquals(3, selection.total());
+    }
+
+    @Test
+    void refresh_ReindexesChangedItemsOnly() {
+        build(facet(1L, "Phones", "Apple", true, 5),
+                facet(2L, "Phones", "Samsung", true, 3));
+        index.onItemsChanged(new ItemsChangedEvent(List.of(1L, 2L)));
+        when(itemRepository.findFacets(anyCollection())).thenReturn(List.of(facet(1L, "Tablets", "Apple", true, 0)));
+
+        index.refresh();
+
+        CatalogFacetIndex.Selection all = index.select(new CatalogFilter(), 0L, 10);
+        assertEquals(List.of(1L), all.itemIds());
+        assertEquals(Map.of("Tablets", 1L), all.facets().getCategories());
+        assertEquals(0, all.facets().getInStock());
+        verify(itemRepository).findFacets(List.of(1L, 2L));
+
+        index.refresh();
+        verify(itemRepository, times(1)).findFacets(anyCollection());
+    }
+
+    @Test
+    void refresh_FailedRead_KeepsItemsQueued() {
+        build(facet(1L, "Phones", "Apple", true, 5));
+        index.onItemsChanged(ItemsChangedEvent.of(1L));
+        when(itemRepository.findFacets(anyCollection()))
+                .thenThrow(new IllegalStateException("down"))
+                .thenReturn(List.of(facet(1L, "Phones", "Apple", true, 0)));
+
+        index.refresh();
+        assertEquals(1, index.select(new CatalogFilter(), 0L, 10).facets().getInStock());
+
+        index.refresh();
+        assertEquals(0, index.select(new CatalogFilter(), 0L, 10).facets().getInStock());
+    }
+
+    @Test
+    void select_BeforeRebuild_Throws() {
+        assertThrows(IllegalStateException.class, () -> index.select(new CatalogFilter(), 0L, 10));
+        index.refresh();
+        verify(itemRepository, never()).findFacets(any());
+    }
+
+    @Test
+    void rebuild_ReportsMemoryAndSize() {
+        build(facet(1L, "Phones", "Apple", true, 5), facet(2L, null, null, true, 5));
+
+        assertEquals(2, meterRegistry.get("inventory.catalog.facets.items").gauge().value());
+        assertTrue(meterRegistry.get("inventory.catalog.facets.memory").gauge().value() > 0);
+    }
+
+    private void build(ItemRepository.FacetView... rows) {
+        when(itemRepository.findFacetsAfter(eq(0L), any())).thenReturn(List.of(rows));
+        index.rebuild();
+    }
+
+    private static ItemRepository.FacetView facet(Long id, String category, String brand, boolean active,
+                                                  int available) {
+        return new ItemRepository.FacetView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getCategory() {
+                return category;
+            }
+
+            @Override
+            public String getBrand() {
+                return brand;
+            }
+
+            @Override
+            public Boolean getActive() {
+                return active;
+            }
+
+            @Override
+            public Integer getAvailableQuantity() {
+                return available;
+            }
+        };
+    }
+}
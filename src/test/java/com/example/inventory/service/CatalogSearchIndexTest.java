@@ -0,0 +1,151 @@
+package com.example.inventory.service;
+
+import com.example.inventory.repository.ItemRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogSearchIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private CatalogSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CatalogSearchIndex(itemRepository);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        index.close();
+    }
+
+    @Test
+    void search_RanksNameMatchesAboveDescriptionMatches() {
+        build(item(1L, "Leather Case", "Fits the iPhone 15", "Acme", "Accessories", true),
+                item(2L, "iPhone 15 Pro", "Titanium smartphone", "Apple", "Electronics", true),
+                item(3L, "Galaxy S24", "Android smartphone", "Samsung", "Electronics", true));
+
+        assertEquals(List.of(2L, 1L), ids(index.search("iphone", 10)));
+        assertEquals(List.of(2L, 1L), ids(index.search("IPHONE 15", 10)));
+    }
+
+    @Test
+    void search_EveryWordMustMatch() {
+        build(item(1L, "iPhone 15 Pro", null, "Apple", "Electronics", true),
+                item(2L, "iPhone 15", null, "Apple", "Electronics", true));
+
+        assertEquals(List.of(1L), ids(index.search("iphone pro", 10)));
+        assertTrue(index.search("iphone galaxy", 10).isEmpty());
+    }
+
+    @Test
+    void search_PrefixOnLastWordAndFuzzyOnLongerWords() {
+        build(item(1L, "Wireless Headphones", "Noise cancelling", "Sony", "Audio", true),
+                item(2L, "Wired Earbuds", null, "Sony", "Audio", true));
+
+        assertEquals(List.of(1L), ids(index.search("wireless head", 10)));
+        assertEquals(List.of(1L), ids(index.search("headphnes", 10)));
+        assertEquals(List.of(1L), ids(index.search("cancelling", 10)));
+        assertTrue(index.search("!!", 10).isEmpty());
+    }
+
+    @Test
+    void search_CommonExactTermOutranksRarePrefixMatch() {
+        // "case" is in every description, so its BM25 score is far below the constant prefix score
+        List<ItemRepository.SearchView> rows = new ArrayList<>();
+        for (long id = 1; id <= 30; id++) {
+            rows.add(item(id, "Phone " + id + " with a charging stand", "Protective case " + id,
+                    "Acme", "Accessories", true));
+        }
+        rows.add(item(31L, "Phone Casement", null, "Acme", "Accessories", true));
+        build(rows.toArray(ItemRepository.SearchView[]::new));
+
+        List<Long> ids = ids(index.search("phone case", 50));
+
+        assertEquals(31, ids.size());
+        assertEquals(31L, ids.get(ids.size() - 1));
+    }
+
+    @Test
+    void refresh_IndexesChangedItemsAndDropsInactiveOrDeleted() {
+        build(item(1L, "Desk Lamp", null, "Ikea", "Home", true),
+                item(2L, "Floor Lamp", null, "Ikea", "Home", true),
+                item(3L, "Table Lamp", null, "Ikea", "Home", true));
+        when(itemRepository.findSearchFields(anyCollection())).thenReturn(List.of(
+                item(1L, "Desk Lamp", null, "Ikea", "Home", false),
+                item(4L, "Reading Lamp", null, "Ikea", "Home", true)));
+        index.onItemsChanged(new ItemsChangedEvent(List.of(1L, 2L, 4L)));
+
+        index.refresh();
+
+        assertEquals(List.of(3L, 4L), ids(index.search("lamp", 10)).stream().sorted().toList());
+    }
+
+    @Test
+    void search_BeforeRebuild_Throws() {
+        assertThrows(IllegalStateException.class, () -> index.search("lamp", 10));
+        index.onItemsChanged(ItemsChangedEvent.of(1L));
+        index.refresh();
+        verify(itemRepository, never()).findSearchFields(any());
+    }
+
+    private void build(ItemRepository.SearchView... rows) {
+        when(itemRepository.findSearchFieldsAfter(eq(0L), any())).thenReturn(List.of(rows));
+        index.rebuild();
+    }
+
+    private static List<Long> ids(List<CatalogSearchIndex.Hit> hits) {
+        return hits.stream().map(CatalogSearchIndex.Hit::itemId).toList();
+    }
+
+    private static ItemRepository.SearchView item(Long id, String name, String description, String brand,
+                                                  String category, boolean active) {
+        return new ItemRepository.SearchView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+
+            @Override
+            public String getBrand() {
+                return brand;
+            }
+
+            @Override
+            public String getCategory() {
+                return category;
+            }
+
+            @Override
+            public Boolean getActive() {
+                return active;
+            }
+        };
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.inventory.service;
+
+import com.example.inventory.dto.BulkImportResult;
+import com.example.inventory.entity.Item;
+import com.example.inventory.repository.ItemRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemImportServiceTest {
+
+    private static final String CSV_HEADER = "sku,name,price,availableQuantity,category,brand\n";
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private ItemImportService itemImportService;
+
+    @Test
+    void importCsv_ValidRows_InsertsAll() throws Exception {
+        BulkImportResult result = itemImportService.importCsv(input(CSV_HEADER
+                + "SKU-1,Item 1,9.99,10,Electronics,Apple\n"
+                + "SKU-2,Item 2,19.99,5,Electronics,Samsung\n"));
+
+        assertEquals(2, result.getReceived());
+        assertEquals(2, result.getImported());
+        assertTrue(result.getErrors().isEmpty());
+        verify(itemRepository).saveAll(anyList());
+        verify(entityManager).flush();
+        verify(itemRepository, times(1)).findExistingSkus(anyCollection());
+        verify(itemRepository, never()).existsBySku(any());
+    }
+
+    @Test
+    void importCsv_InvalidAndDuplicateRows_ReportedByRow() throws Exception {
+        BulkImportResult result = itemImportService.importCsv(input(CSV_HEADER
+                + "SKU-1,Item 1,9.99,10,,\n"
+                + "SKU-2,Item 2,-1,5,,\n"
+                + "SKU-1,Item 3,9.99,10,,\n"
+                + "SKU-4,Item 1,9.99,10,,\n"
+                + "SKU-5,Item 5,not-a-price,10,,\n"));
+
+        assertEquals(5, result.getReceived());
+        assertEquals(1, result.getImported());
+        assertEquals(List.of(2, 3, 4, 5), result.getErrors().stream().map(BulkImportResult.RowError::getRow).toList());
+        assertEquals("Price must be positive", result.getErrors().get(0).getMessage());
+        assertEquals("Duplicate SKU in import", result.getErrors().get(1).getMessage());
+        assertEquals("Duplicate name in import", result.getErrors().get(2).getMessage());
+        assertTrue(result.getErrors().get(3).getMessage().startsWith("Unreadable row"));
+    }
+
+    @Test
+    void importNdjson_ExistingSkuOrName_Rejected() throws Exception {
+        when(itemRepository.findExistingSkus(anyCollection())).thenReturn(List.of("SKU-1"));
+        when(itemRepository.findExistingNames(anyCollection())).thenReturn(List.of("Item 2"));
+
+        BulkImportResult result = itemImportService.importNdjson(input(
+                "{\"sku\":\"SKU-1\",\"name\":\"Item 1\",\"price\":9.99,\"availableQuantity\":1}\n"
+                + "\n"
+                + "{\"sku\":\"SKU-2\",\"name\":\"Item 2\",\"price\":9.99,\"availableQuantity\":1}\n"
+                + "{\"sku\":\"SKU-3\",\"name\":\"Item 3\",\"price\":9.99,\"availableQuantity\":1}\n"
+                + "{not json\n"));
+
+        assertEquals(4, result.getReceived());
+        assertEquals(1, result.getImported());
+        assertEquals("Item with SKU SKU-1 already exists", result.getErrors().get(0).getMessage());
+        assertEquals("Item with name Item 2 already exists", result.getErrors().get(1).getMessage());
+        assertEquals(4, result.getErrors().get(2).getRow());
+    }
+
+    @Test
+    void importNdjson_LargeUpload_InsertsInChunks() throws Exception {
+        int rows = ItemImportService.CHUNK_SIZE * 2 + 1;
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < rows; i++) {
+            body.append("{\"sku\":\"SKU-").append(i).append("\",\"name\":\"Item ").append(i)
+                    .append("\",\"price\":1,\"availableQuantity\":1}\n");
+        }
+
+        BulkImportResult result = itemImportService.importNdjson(input(body.toString()));
+
+        assertEquals(rows, result.getImported());
+        verify(itemRepository, times(3)).saveAll(anyList());
+        verify(entityManager, times(3)).clear();
+        verify(itemRepository, times(3)).findExistingSkus(anyCollection());
+        // One transaction per chunk
+        verify(transactionTemplate, times(3)).execute(any());
+    }
+
+    @Test
+    void importCsv_ChunkHitsConcurrentInsert_KeepsOtherRowsAndReportsConflict() throws Exception {
+        when(itemRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Item> items = invocation.getArgument(0);
+            if (items.stream().anyMatch(item -> item.getSku().equals("SKU-2"))) {
+                throw new DataIntegrityViolationException("unique constraint on items.sku");
+            }
+            items.forEach(item -> item.setId(Long.valueOf(item.getSku().substring("SKU-".length()))));
+            return items;
+        });
+
+        BulkImportResult result = itemImportService.importCsv(input(CSV_HEADER
+                + "SKU-1,Item 1,9.99,10,,\n"
+                + "SKU-2,Item 2,9.99,10,,\n"
+                + "SKU-3,Item 3,9.99,10,,\n"));
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getErrors().size());
+        assertEquals(2, result.getErrors().get(0).getRow());
+        assertEquals("SKU-2", result.getErrors().get(0).getSku());
+        // The chunk, then each row on its own
+        verify(transactionTemplate, times(4)).execute(any());
+    }
+
+    @Test
+    void importCsv_NothingValid_DoesNotOpenTransaction() throws Exception {
+        BulkImportResult result = itemImportService.importCsv(input(CSV_HEADER + ",,,,,\n"));
+
+        assertEquals(0, result.getImported());
+        assertEquals(1, result.getErrors().size());
+        verifyNoInteractions(itemRepository);
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    private static InputStream input(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
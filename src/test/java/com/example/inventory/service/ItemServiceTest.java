@@ -1,23 +1,43 @@
 package com.example.inventory.service;
 
+import com.example.inventory.cache.ItemCache;
+import com.example.inventory.dto.AvailabilityRequest;
+import com.example.inventory.dto.AvailabilityResult;
+import com.example.inventory.dto.CatalogFacets;
+import com.example.inventory.dto.CatalogFilter;
+import com.example.inventory.dto.CatalogPage;
 import com.example.inventory.dto.CreateItemRequest;
+import com.example.inventory.dto.CursorPage;
 import com.example.inventory.dto.ItemDto;
+import com.example.inventory.dto.ItemSearchHit;
 import com.example.inventory.entity.Item;
 import com.example.inventory.repository.ItemRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageRequest;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,10 +49,29 @@ class ItemServiceTest {
     @Mock
     private CacheService cacheService;
 
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private CatalogFacetIndex catalogFacetIndex;
+
+    @Mock
+    private CatalogSearchIndex catalogSearchIndex;
+
+    @Spy
+    private ItemCache itemCache = new ItemCache(new ConcurrentMapCacheManager());
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    private InventoryMetrics inventoryMetrics = new InventoryMetrics(new SimpleMeterRegistry());
+
     @InjectMocks
     private ItemService itemService;
 
     private Item testItem;
+    private ItemDto testItemDto;
     private CreateItemRequest createItemRequest;
 
     @BeforeEach
@@ -53,6 +92,8 @@ class ItemServiceTest {
                 .updatedAt(now)
                 .build();
 
+        testItemDto = dto(testItem);
+
         createItemRequest = CreateItemRequest.builder()
                 .name("iPhone 15 Pro")
                 .description("Latest iPhone with advanced features")
@@ -68,7 +109,7 @@ class ItemServiceTest {
     void createItem_Success() {
         when(itemRepository.existsBySku(createItemRequest.getSku())).thenReturn(false);
         when(itemRepository.existsByName(createItemRequest.getName())).thenReturn(false);
-        when(itemRepository.save(any(Item.class))).thenReturn(testItem);
+        when(itemRepository.saveAndFlush(any(Item.class))).thenReturn(testItem);
 
         ItemDto result = itemService.createItem(createItemRequest);
 
@@ -77,7 +118,6 @@ class ItemServiceTest {
         assertEquals(testItem.getSku(), result.getSku());
         assertEquals(testItem.getPrice(), result.getPrice());
         verify(cacheService, times(1)).evictItemCache(testItem.getId());
-        verify(cacheService, times(1)).evictItemCache(testItem.getSku());
     }
 
     @Test
@@ -85,7 +125,7 @@ class ItemServiceTest {
         when(itemRepository.existsBySku(createItemRequest.getSku())).thenReturn(true);
 
         assertThrows(IllegalArgumentException.class, () -> itemService.createItem(createItemRequest));
-        verify(itemRepository, never()).save(any());
+        verify(itemRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -94,12 +134,12 @@ class ItemServiceTest {
         when(itemRepository.existsByName(createItemRequest.getName())).thenReturn(true);
 
         assertThrows(IllegalArgumentException.class, () -> itemService.createItem(createItemRequest));
-        verify(itemRepository, never()).save(any());
+        verify(itemRepository, never()).saveAndFlush(any());
     }
 
     @Test
     void getItemById_Success() {
-        when(itemRepository.findById(1L)).thenReturn(Optional.of(testItem));
+        when(itemRepository.findDtoById(1L)).thenReturn(Optional.of(testItemDto));
 
         Optional<ItemDto> result = itemService.getItemById(1L);
 
@@ -109,7 +149,7 @@ class ItemServiceTest {
 
     @Test
     void getItemById_NotFound_ReturnsEmpty() {
-        when(itemRepository.findById(1L)).thenReturn(Optional.empty());
+        when(itemRepository.findDtoById(1L)).thenReturn(Optional.empty());
 
         Optional<ItemDto> result = itemService.getItemById(1L);
 
@@ -118,7 +158,8 @@ class ItemServiceTest {
 
     @Test
     void getItemBySku_Success() {
-        when(itemRepository.findBySku("IPHONE-15-PRO-256")).thenReturn(Optional.of(testItem));
+        when(itemRepository.findIdBySku("IPHONE-15-PRO-256")).thenReturn(Optional.of(1L));
+        when(itemRepository.findDtoById(1L)).thenReturn(Optional.of(testItemDto));
 
         Optional<ItemDto> result = itemService.getItemBySku("IPHONE-15-PRO-256");
 
@@ -126,26 +167,86 @@ class ItemServiceTest {
         assertEquals(testItem.getSku(), result.get().getSku());
     }
 
+    @Test
+    void getItemBySku_SharesCachedEntryWithGetItemById() {
+        when(itemRepository.findIdBySku("IPHONE-15-PRO-256")).thenReturn(Optional.of(1L));
+        when(itemRepository.findDtoById(1L)).thenReturn(Optional.of(testItemDto));
+
+        itemService.getItemBySku("IPHONE-15-PRO-256");
+        Optional<ItemDto> byId = itemService.getItemById(1L);
+        Optional<ItemDto> bySku = itemService.getItemBySku("IPHONE-15-PRO-256");
+
+        assertSame(byId.get(), bySku.get());
+        verify(itemRepository, times(1)).findIdBySku("IPHONE-15-PRO-256");
+        verify(itemRepository, times(1)).findDtoById(1L);
+    }
+
     @Test
     void getAllItems_Success() {
-        List<Item> items = List.of(testItem);
-        when(itemRepository.findAll()).thenReturn(items);
+        when(itemRepository.findPageAfter(0L, PageRequest.of(0, 51))).thenReturn(List.of(testItemDto));
 
-        List<ItemDto> result = itemService.getAllItems();
+        CursorPage<ItemDto> result = itemService.getAllItems(0L, 50);
 
-        assertEquals(1, result.size());
-        assertEquals(testItem.getName(), result.get(0).getName());
+        assertEquals(1, result.getItems().size());
+        assertEquals(testItem.getName(), result.getItems().get(0).getName());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void getAllItems_MoreRowsThanPageSize_ReturnsCursorAfterLastItem() {
+        List<ItemDto> rows = List.of(dto(item(3L)), dto(item(5L)), dto(item(8L)));
+        when(itemRepository.findPageAfter(1L, PageRequest.of(0, 3))).thenReturn(rows);
+
+        CursorPage<ItemDto> result = itemService.getAllItems(1L, 2);
+
+        assertEquals(List.of(3L, 5L), result.getItems().stream().map(ItemDto::getId).toList());
+        assertEquals(5L, CursorPage.decodeCursor(result.getNextCursor()));
+    }
+
+    @Test
+    void getAllItems_PageSizeAboveLimit_IsCapped() {
+        when(itemRepository.findPageAfter(0L, PageRequest.of(0, ItemService.MAX_PAGE_SIZE + 1))).thenReturn(List.of());
+
+        CursorPage<ItemDto> result = itemService.getAllItems(0L, 100_000);
+
+        assertTrue(result.getItems().isEmpty());
+        assertNull(result.getNextCursor());
     }
 
     @Test
     void getAvailableItems_Success() {
-        List<Item> items = List.of(testItem);
-        when(itemRepository.findAvailableItems()).thenReturn(items);
+        when(itemRepository.findAvailablePageAfter(0L, PageRequest.of(0, 51))).thenReturn(List.of(testItemDto));
+
+        CursorPage<ItemDto> result = itemService.getAvailableItems(0L, 50);
+
+        assertEquals(1, result.getItems().size());
+    }
+
+    @Test
+    void getItemsByCategory_Success() {
+        when(itemRepository.findByCategoryPageAfter("Electronics", 0L, PageRequest.of(0, 11)))
+                .thenReturn(List.of(testItemDto));
+
+        CursorPage<ItemDto> result = itemService.getItemsByCategory("Electronics", 0L, 10);
 
-        List<ItemDto> result = itemService.getAvailableItems();
+        assertEquals("Electronics", result.getItems().get(0).getCategory());
+    }
 
-        assertEquals(1, result.size());
-        assertEquals(testItem.getName(), result.get(0).getName());
+    @Test
+    void exportItems_WritesOneJsonLinePerItem() throws Exception {
+        ItemDto second = dto(item(2L));
+        when(itemRepository.streamAllOrderById()).thenReturn(Stream.of(testItemDto, second));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long exported = itemService.exportItems(out);
+
+        assertEquals(2, exported);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readValue(lines[0], ItemDto.class).getId());
+        assertEquals("SKU-2", objectMapper.readValue(lines[1], ItemDto.class).getSku());
+        assertEquals(objectMapper.writeValueAsString(second), lines[1]);
+        assertTrue(out.toString(StandardCharsets.UTF_8).endsWith("}\n"));
     }
 
     @Test
@@ -156,8 +257,8 @@ class ItemServiceTest {
         ItemDto result = itemService.addSupply(1L, 10);
 
         assertNotNull(result);
+        verify(stockLedger).onSupply(1L, 10, testItem);
         verify(cacheService, times(1)).evictItemCache(testItem.getId());
-        verify(cacheService, times(1)).evictItemCache(testItem.getSku());
     }
 
     @Test
@@ -193,4 +294,127 @@ class ItemServiceTest {
 
         assertFalse(result);
     }
-} 
\ No newline at end of file
+
+    @Test
+    void checkAvailability_Batch_OneProjectionQueryForIdsAndSkus() {
+        when(itemRepository.findAvailability(Set.of(1L, 2L), Set.of("SKU-3", "UNKNOWN"))).thenReturn(List.of(
+                availability(1L, "SKU-1", true, 10),
+                availability(2L, "SKU-2", false, 10),
+                availability(3L, "SKU-3", true, 4)));
+        when(stockLedger.getAvailableQuantity(any())).thenReturn(null);
+
+        AvailabilityResult result = itemService.checkAvailability(new AvailabilityRequest(List.of(
+                line(1L, null, 6),
+                line(1L, null, 4),
+                line(2L, null, 1),
+                line(null, "SKU-3", 5),
+                line(null, "UNKNOWN", 1))));
+
+        assertEquals(Map.of(1L, true, 2L, false), result.getItems());
+        assertEquals(Map.of("SKU-3", false, "UNKNOWN", false), result.getSkus());
+        verify(itemRepository, times(1)).findAvailability(any(), any());
+        verify(itemRepository, never()).findById(any());
+    }
+
+    @Test
+    void checkAvailability_Batch_PrefersStockLedgerCounters() {
+        when(itemRepository.findAvailability(Set.of(1L), Set.of()))
+                .thenReturn(List.of(availability(1L, "SKU-1", true, 10)));
+        when(stockLedger.getAvailableQuantity(1L)).thenReturn(2);
+
+        AvailabilityResult result = itemService.checkAvailability(new AvailabilityRequest(List.of(line(1L, null, 5))));
+
+        assertEquals(Map.of(1L, false), result.getItems());
+    }
+
+    @Test
+    void browseItems_LoadsOnlyThePageFromTheIndexSelection() {
+        CatalogFilter filter = CatalogFilter.builder().categories(Set.of("Electronics")).inStock(true).build();
+        CatalogFacets facets = CatalogFacets.builder().categories(Map.of("Electronics", 3L)).build();
+        when(catalogFacetIndex.isReady()).thenReturn(true);
+        when(catalogFacetIndex.select(filter, 0L, 3)).thenReturn(new CatalogFacetIndex.Selection(List.of(1L, 4L, 9L), 3, facets));
+        when(itemRepository.findDtosByIds(List.of(1L, 4L))).thenReturn(List.of(testItemDto, dto(item(4L))));
+
+        CatalogPage page = itemService.browseItems(filter, 0L, 2).orElseThrow();
+
+        assertEquals(List.of(1L, 4L), page.getItems().stream().map(ItemDto::getId).toList());
+        assertEquals(4L, CursorPage.decodeCursor(page.getNextCursor()));
+        assertEquals(3, page.getTotal());
+        assertSame(facets, page.getFacets());
+    }
+
+    @Test
+    void browseItems_IndexNotBuilt_ReturnsEmpty() {
+        assertTrue(itemService.browseItems(new CatalogFilter(), 0L, 10).isEmpty());
+        verify(catalogFacetIndex, never()).select(any(), anyLong(), anyInt());
+    }
+
+    @Test
+    void searchItems_KeepsIndexRankingAndSkipsDeletedItems() {
+        when(catalogSearchIndex.isReady()).thenReturn(true);
+        when(catalogSearchIndex.search("iphone", 20)).thenReturn(List.of(
+                new CatalogSearchIndex.Hit(4L, 3.5f), new CatalogSearchIndex.Hit(9L, 2f), new CatalogSearchIndex.Hit(1L, 1f)));
+        when(itemRepository.findDtosByIds(List.of(4L, 9L, 1L))).thenReturn(List.of(testItemDto, dto(item(4L))));
+
+        List<ItemSearchHit> hits = itemService.searchItems("iphone", 20).orElseThrow();
+
+        assertEquals(List.of(4L, 1L), hits.stream().map(hit -> hit.getItem().getId()).toList());
+        assertEquals(3.5f, hits.get(0).getScore());
+    }
+
+    @Test
+    void searchItems_LimitCapped() {
+        when(catalogSearchIndex.isReady()).thenReturn(true);
+
+        assertEquals(List.of(), itemService.searchItems("iphone", 10_000).orElseThrow());
+        verify(catalogSearchIndex).search("iphone", ItemService.MAX_SEARCH_RESULTS);
+        verify(itemRepository, never()).findDtosByIds(any());
+    }
+
+    private static AvailabilityRequest.Line line(Long itemId, String sku, int quantity) {
+        return AvailabilityRequest.Line.builder().itemId(itemId).sku(sku).quantity(quantity).build();
+    }
+
+    private static ItemRepository.AvailabilityView availability(Long id, String sku, boolean active, int available) {
+        return new ItemRepository.AvailabilityView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getSku() {
+                return sku;
+            }
+
+            @Override
+            public Boolean getActive() {
+                return active;
+            }
+
+            @Override
+            public Integer getAvailableQuantity() {
+                return available;
+            }
+        };
+    }
+
+    // What the projection queries build for an item
+    private static ItemDto dto(Item item) {
+        return new ItemDto(item.getId(), item.getName(), item.getDescription(), item.getSku(), item.getPrice(),
+                item.getAvailableQuantity(), item.getReservedQuantity(), item.getCategory(), item.getBrand(),
+                item.getIsActive(), item.getCreatedAt(), item.getUpdatedAt());
+    }
+
+    private Item item(Long id) {
+        return Item.builder()
+                .id(id)
+                .name("Item " + id)
+                .sku("SKU-" + id)
+                .price(BigDecimal.TEN)
+                .availableQuantity(1)
+                .createdAt(testItem.getCreatedAt())
+                .updatedAt(testItem.getUpdatedAt())
+                .build();
+    }
+}
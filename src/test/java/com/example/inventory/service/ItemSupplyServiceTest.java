@@ -0,0 +1,155 @@
+package com.example.inventory.service;
+
+import com.example.inventory.dto.BulkImportResult;
+import com.example.inventory.dto.BulkSupplyResult;
+import com.example.inventory.repository.ItemRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSupplyServiceTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private CacheService cacheService;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private ItemSupplyService itemSupplyService;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void supplyCsv_AggregatesPerSkuAndAppliesOneBatch() throws Exception {
+        when(itemRepository.lockSupplyTargets(anyCollection()))
+                .thenReturn(List.of(target(1L, "SKU-B", 3L), target(2L, "SKU-A", 7L)));
+
+        BulkSupplyResult result = itemSupplyService.supplyCsv(input("sku,quantity\n"
+                + "SKU-B,5\n"
+                + "SKU-A,1\n"
+                + "SKU-B,10\n"));
+
+        assertEquals(3, result.getReceived());
+        assertEquals(2, result.getApplied());
+        assertEquals(List.of("SKU-A", "SKU-B"), result.getResults().stream().map(BulkSupplyResult.SkuResult::getSku).toList());
+        assertEquals(15, result.getResults().get(1).getQuantity());
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), batch.capture());
+        assertEquals(15, batch.getValue().get(0)[0]);
+        assertEquals(1L, batch.getValue().get(0)[2]);
+        verify(itemRepository, times(1)).lockSupplyTargets(Set.of("SKU-A", "SKU-B"));
+        verify(stockLedger).onSupply(1L, 15, 4L);
+        verify(stockLedger).onSupply(2L, 1, 8L);
+        ArgumentCaptor<Collection<Long>> evicted = ArgumentCaptor.forClass(Collection.class);
+        verify(cacheService).evictItemCaches(evicted.capture());
+        assertEquals(Set.of(1L, 2L), Set.copyOf(evicted.getValue()));
+        verify(itemRepository, never()).findBySkuWithLock(any());
+    }
+
+    @Test
+    void supplyNdjson_UnknownSkuAndInvalidLines_Reported() throws Exception {
+        when(itemRepository.lockSupplyTargets(anyCollection())).thenReturn(List.of(target(1L, "SKU-1", 0L)));
+
+        BulkSupplyResult result = itemSupplyService.supplyNdjson(input(
+                "{\"sku\":\"SKU-1\",\"quantity\":2}\n"
+                + "{\"sku\":\"SKU-2\",\"quantity\":-1}\n"
+                + "not json\n"
+                + "{\"sku\":\"UNKNOWN\",\"quantity\":4}\n"));
+
+        assertEquals(4, result.getReceived());
+        assertEquals(1, result.getApplied());
+        assertEquals(List.of(2, 3), result.getErrors().stream().map(BulkImportResult.RowError::getRow).toList());
+        assertEquals("Quantity must be positive", result.getErrors().get(0).getMessage());
+        BulkSupplyResult.SkuResult unknown = result.getResults().get(1);
+        assertEquals("UNKNOWN", unknown.getSku());
+        assertFalse(unknown.isApplied());
+        assertEquals("Item not found with SKU: UNKNOWN", unknown.getMessage());
+    }
+
+    @Test
+    void supplyCsv_FailedChunk_ReportedPerSkuWithoutEviction() throws Exception {
+        when(itemRepository.lockSupplyTargets(anyCollection())).thenReturn(List.of(target(1L, "SKU-1", 0L)));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenThrow(new QueryTimeoutException("timed out"));
+
+        BulkSupplyResult result = itemSupplyService.supplyCsv(input("sku,quantity\nSKU-1,2\n"));
+
+        assertEquals(0, result.getApplied());
+        assertEquals("Not applied: timed out", result.getResults().get(0).getMessage());
+        verify(cacheService, never()).evictItemCaches(any());
+    }
+
+    @Test
+    void supplyCsv_ManySkus_AppliedInChunks() throws Exception {
+        StringBuilder csv = new StringBuilder("sku,quantity\n");
+        for (int i = 0; i < ItemSupplyService.CHUNK_SIZE + 1; i++) {
+            csv.append("SKU-").append(i).append(",1\n");
+        }
+
+        BulkSupplyResult result = itemSupplyService.supplyCsv(input(csv.toString()));
+
+        assertEquals(ItemSupplyService.CHUNK_SIZE + 1, result.getResults().size());
+        verify(itemRepository, times(2)).lockSupplyTargets(anyCollection());
+        verify(transactionTemplate, times(2)).execute(any());
+    }
+
+    private static ItemRepository.SupplyTarget target(Long id, String sku, Long version) {
+        return new ItemRepository.SupplyTarget() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getSku() {
+                return sku;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+
+    private static InputStream input(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
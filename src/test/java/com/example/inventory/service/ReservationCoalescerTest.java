@@ -0,0 +1,215 @@
+package com.example.inventory.service;
+
+import com.example.inventory.config.ReservationProperties;
+import com.example.inventory.dto.ReservationRequest;
+import com.example.inventory.entity.Item;
+import com.example.inventory.entity.Reservation;
+import com.example.inventory.repository.ItemRepository;
+import com.example.inventory.repository.ReservationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationCoalescerTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private CacheService cacheService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReservationCoalescer reservationCoalescer;
+
+    private Item testItem;
+
+    @BeforeEach
+    void setUp() {
+        ReservationProperties properties = new ReservationProperties();
+        properties.getCoalescing().setWindowMicros(50_000);
+        reservationCoalescer = new ReservationCoalescer(itemRepository, reservationRepository, cacheService,
+                new TransactionTemplate(transactionManager), properties, new InventoryMetrics(new SimpleMeterRegistry()));
+        LocalDateTime now = LocalDateTime.now();
+        testItem = Item.builder()
+                .id(1L)
+                .name("iPhone 15 Pro")
+                .sku("IPHONE-15-PRO-256")
+                .price(new BigDecimal("999.99"))
+                .availableQuantity(10)
+                .reservedQuantity(0)
+                .isActive(true)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationCoalescer.shutdown();
+    }
+
+    @Test
+    void submit_ConcurrentRequests_AppliedUnderOneLockInArrivalOrder() {
+        when(itemRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testItem));
+        when(reservationRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<CompletableFuture<Reservation>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(reservationCoalescer.submit(request("CUST-" + i, i < 4 ? 2 : 3)));
+        }
+
+        // 2+2+2+2 fits, then only 10-8=2 left so every 3 is rejected
+        for (int i = 0; i < 4; i++) {
+            Reservation reservation = futures.get(i).join();
+            assertEquals("CUST-" + i, reservation.getCustomerId());
+            assertEquals(2, reservation.getQuantity());
+        }
+        for (int i = 4; i < 8; i++) {
+            CompletionException e = assertThrows(CompletionException.class, futures.get(i)::join);
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+        assertEquals(2, testItem.getAvailableQuantity());
+        assertEquals(8, testItem.getReservedQuantity());
+        verify(itemRepository, times(1)).findByIdWithLock(1L);
+        verify(reservationRepository, times(1)).saveAll(anyList());
+        verify(cacheService, times(1)).evictItemCache(1L);
+    }
+
+    @Test
+    void reserve_ItemNotFound_ThrowsException() {
+        when(itemRepository.findByIdWithLock(1L)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> reservationCoalescer.reserve(request("CUST-001", 1)));
+        verify(reservationRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void reserve_BatchFailure_FailsEveryCaller() {
+        when(itemRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testItem));
+        when(reservationRepository.saveAll(anyList())).thenThrow(new IllegalStateException("database unavailable"));
+
+        CompletableFuture<Reservation> first = reservationCoalescer.submit(request("CUST-001", 1));
+        CompletableFuture<Reservation> second = reservationCoalescer.submit(request("CUST-002", 1));
+
+        assertThrows(CompletionException.class, first::join);
+        assertThrows(CompletionException.class, second::join);
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    void reserve_BatchFailsWithError_FailsEveryCaller() {
+        when(itemRepository.findByIdWithLock(1L)).thenThrow(new AssertionError("driver bug"));
+
+        CompletableFuture<Reservation> first = reservationCoalescer.submit(request("CUST-001", 1));
+        CompletableFuture<Reservation> second = reservationCoalescer.submit(request("CUST-002", 1));
+
+        CompletionException e = assertThrows(CompletionException.class, first::join);
+        assertInstanceOf(AssertionError.class, e.getCause());
+        assertThrows(CompletionException.class, second::join);
+    }
+
+    @Test
+    void submit_AfterShutdown_FailsInsteadOfParkingInOpenBatch() {
+        reservationCoalescer.shutdown();
+
+        CompletableFuture<Reservation> first = reservationCoalescer.submit(request("CUST-001", 1));
+        CompletableFuture<Reservation> second = reservationCoalescer.submit(request("CUST-002", 1));
+
+        CompletionException e = assertThrows(CompletionException.class, first::join);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        assertThrows(IllegalStateException.class, () -> reservationCoalescer.reserve(request("CUST-003", 1)));
+        assertTrue(second.isCompletedExceptionally());
+        verify(itemRepository, never()).findByIdWithLock(any());
+    }
+
+    @Test
+    void reserve_BatchCommitsAfterTimeout_CancelsLateReservation() {
+        ReservationCoalescer slowCoalescer = coalescer(0, 100);
+        CountDownLatch lockTaken = new CountDownLatch(1);
+        when(itemRepository.findByIdWithLock(1L)).thenAnswer(invocation -> {
+            lockTaken.await(5, TimeUnit.SECONDS);
+            return Optional.of(testItem);
+        });
+        List<Reservation> saved = new ArrayList<>();
+        when(reservationRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Reservation> reservations = invocation.getArgument(0);
+            reservations.forEach(reservation -> reservation.setId(7L));
+            saved.addAll(reservations);
+            return reservations;
+        });
+        when(reservationRepository.findById(7L)).thenAnswer(invocation -> Optional.of(saved.get(0)));
+        when(itemRepository.releaseReservedQuantity(1L, 2)).thenReturn(1);
+        try {
+            IllegalStateException e = assertThrows(IllegalStateException.class,
+                    () -> slowCoalescer.reserve(request("CUST-001", 2)));
+            assertInstanceOf(TimeoutException.class, e.getCause());
+
+            lockTaken.countDown();
+
+            verify(itemRepository, timeout(5000)).releaseReservedQuantity(1L, 2);
+            verify(reservationRepository, timeout(5000)).save(saved.get(0));
+            assertEquals(Reservation.ReservationStatus.CANCELLED, saved.get(0).getStatus());
+        } finally {
+            lockTaken.countDown();
+            slowCoalescer.shutdown();
+        }
+    }
+
+    @Test
+    void reserve_TimesOutBeforeBatchDrains_LeavesRequestOutOfBatch() {
+        ReservationCoalescer slowCoalescer = coalescer(300_000, 50);
+        try {
+            assertThrows(IllegalStateException.class, () -> slowCoalescer.reserve(request("CUST-001", 1)));
+
+            verify(itemRepository, after(500).never()).findByIdWithLock(any());
+            verify(reservationRepository, never()).saveAll(anyList());
+        } finally {
+            slowCoalescer.shutdown();
+        }
+    }
+
+    private ReservationCoalescer coalescer(long windowMicros, long timeoutMs) {
+        ReservationProperties properties = new ReservationProperties();
+        properties.getCoalescing().setWindowMicros(windowMicros);
+        properties.getCoalescing().setTimeoutMs(timeoutMs);
+        return new ReservationCoalescer(itemRepository, reservationRepository, cacheService,
+                new TransactionTemplate(transactionManager), properties, new InventoryMetrics(new SimpleMeterRegistry()));
+    }
+
+    private ReservationRequest request(String customerId, int quantity) {
+        return ReservationRequest.builder()
+                .itemId(1L)
+                .customerId(customerId)
+                .quantity(quantity)
+                .expirationMinutes(30)
+                .build();
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.inventory.service;
+
+import com.example.inventory.config.ReservationProperties;
+import com.example.inventory.entity.Item;
+import com.example.inventory.entity.Reservation;
+import com.example.inventory.repository.ItemRepository;
+import com.example.inventory.repository.ReservationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationExpirySweeperTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private CacheService cacheService;
+
+    @Mock
+    private StockLedger stockLedger;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReservationProperties reservationProperties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ReservationExpirySweeper sweeper;
+
+    @BeforeEach
+    void setUp() {
+        reservationProperties = new ReservationProperties();
+        reservationProperties.getExpiry().setChunkSize(3);
+        meterRegistry = new SimpleMeterRegistry();
+        sweeper = new ReservationExpirySweeper(reservationRepository, itemRepository, cacheService, stockLedger,
+                reservationProperties, new TransactionTemplate(transactionManager), meterRegistry);
+    }
+
+    @Test
+    void sweep_AggregatesReleasedQuantityPerItemAndChunks() {
+        List<Reservation> firstChunk = List.of(expired(1L, 2L, 1), expired(2L, 1L, 2), expired(3L, 2L, 4));
+        List<Reservation> secondChunk = List.of(expired(4L, 1L, 5));
+        when(reservationRepository.findExpiredReservationsForUpdate(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(firstChunk, secondChunk);
+        when(itemRepository.releaseReservedQuantity(anyLong(), anyInt())).thenReturn(1);
+
+        int expired = sweeper.sweep();
+
+        assertEquals(4, expired);
+        InOrder inOrder = inOrder(itemRepository);
+        inOrder.verify(itemRepository).releaseReservedQuantity(1L, 2);
+        inOrder.verify(itemRepository).releaseReservedQuantity(2L, 5);
+        inOrder.verify(itemRepository).releaseReservedQuantity(1L, 5);
+        verify(itemRepository, never()).save(any());
+        verify(transactionManager, times(2)).commit(any());
+        firstChunk.forEach(r -> assertEquals(Reservation.ReservationStatus.EXPIRED, r.getStatus()));
+        assertEquals(4.0, meterRegistry.counter("inventory.reservations.expired").count());
+        assertEquals(1, meterRegistry.timer("inventory.reservations.expiry.sweep").count());
+    }
+
+    @Test
+    void sweep_NothingExpired_DoesNothing() {
+        when(reservationRepository.findExpiredReservationsForUpdate(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        assertEquals(0, sweeper.sweep());
+        verifyNoInteractions(itemRepository, cacheService);
+    }
+
+    @Test
+    void sweep_ReservedQuantityMismatch_RollsBackChunk() {
+        when(reservationRepository.findExpiredReservationsForUpdate(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(List.of(expired(1L, 1L, 2)));
+        when(itemRepository.releaseReservedQuantity(1L, 2)).thenReturn(0);
+
+        assertThrows(IllegalStateException.class, () -> sweeper.sweep());
+        verify(transactionManager).rollback(any());
+        verify(cacheService, never()).evictItemCache(anyLong());
+    }
+
+    @Test
+    void sweep_LedgerMode_ReleasesThroughLedger() {
+        reservationProperties.setMode(ReservationProperties.Mode.LEDGER);
+        when(reservationRepository.findExpiredReservationsForUpdate(any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(new ArrayList<>(List.of(expired(1L, 1L, 2), expired(2L, 1L, 3))));
+
+        sweeper.sweep();
+
+        verify(stockLedger).release(1L, 5);
+        verify(itemRepository, never()).releaseReservedQuantity(anyLong(), anyInt());
+        verify(cacheService).evictItemCache(1L);
+    }
+
+    private Reservation expired(Long id, Long itemId, int quantity) {
+        return Reservation.builder()
+                .id(id)
+                .item(Item.builder().id(itemId).build())
+                .customerId("CUST-001")
+                .quantity(quantity)
+                .status(Reservation.ReservationStatus.ACTIVE)
+                .expiresAt(LocalDateTime.now().minusMinutes(1))
+                .build();
+    }
+}
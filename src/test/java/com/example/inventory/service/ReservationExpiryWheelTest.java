@@ -0,0 +1,85 @@
+package com.example.inventory.service;
+
+import com.example.inventory.config.ReservationProperties;
+import com.example.inventory.entity.Reservation;
+import com.example.inventory.repository.ReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationExpiryWheelTest {
+
+    @Mock
+    private ReservationRepository reservationRepository;
+
+    @Mock
+    private ReservationExpirySweeper reservationExpirySweeper;
+
+    private ReservationExpiryWheel expiryWheel;
+
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        expiryWheel = new ReservationExpiryWheel(reservationRepository, reservationExpirySweeper,
+                new ReservationProperties());
+        now = LocalDateTime.now();
+    }
+
+    @Test
+    void tick_ExpiresDueReservationsInOneBatch() {
+        expiryWheel.schedule(reservation(1L, now.plusSeconds(1)));
+        expiryWheel.schedule(reservation(2L, now.plusSeconds(2)));
+        expiryWheel.schedule(reservation(3L, now.plusMinutes(30)));
+
+        expiryWheel.tick(epochMilli(now));
+        verifyNoInteractions(reservationExpirySweeper);
+        assertEquals(3, expiryWheel.size());
+
+        expiryWheel.tick(epochMilli(now.plusSeconds(3)));
+        verify(reservationExpirySweeper, times(1)).expireReservations(List.of(1L, 2L));
+        assertEquals(1, expiryWheel.size());
+    }
+
+    @Test
+    void tick_AlreadyExpired_FiresImmediately() {
+        expiryWheel.schedule(reservation(1L, now.minusMinutes(1)));
+
+        expiryWheel.tick(epochMilli(now));
+
+        verify(reservationExpirySweeper).expireReservations(List.of(1L));
+    }
+
+    @Test
+    void tick_SweeperFailure_DoesNotPropagate() {
+        when(reservationExpirySweeper.expireReservations(anyCollection())).thenThrow(new IllegalStateException("boom"));
+        expiryWheel.schedule(reservation(1L, now.minusMinutes(1)));
+
+        assertDoesNotThrow(() -> expiryWheel.tick(epochMilli(now)));
+    }
+
+    private Reservation reservation(Long id, LocalDateTime expiresAt) {
+        return Reservation.builder()
+                .id(id)
+                .customerId("CUST-001")
+                .quantity(1)
+                .status(Reservation.ReservationStatus.ACTIVE)
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    private long epochMilli(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
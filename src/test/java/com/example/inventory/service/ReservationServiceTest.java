@@ -1,24 +1,36 @@
 package com.example.inventory.service;
 
+import com.example.inventory.config.ReservationProperties;
+import com.example.inventory.dto.CartReservationRequest;
+import com.example.inventory.dto.CursorPage;
+import com.example.inventory.dto.ReservationDto;
 import com.example.inventory.dto.ReservationRequest;
 import com.example.inventory.entity.Item;
 import com.example.inventory.entity.Reservation;
 import com.example.inventory.repository.ItemRepository;
 import com.example.inventory.repository.ReservationRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,6 +45,29 @@ class ReservationServiceTest {
     @Mock
     private CacheService cacheService;
 
+    @Mock
+    private StockLedger stockLedger;
+
+    @Spy
+    private ReservationProperties reservationProperties = new ReservationProperties();
+
+    @Mock
+    private ReservationCoalescer reservationCoalescer;
+
+    @Mock
+    private ReservationExpirySweeper reservationExpirySweeper;
+
+    @Mock
+    private ReservationExpiryWheel reservationExpiryWheel;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private InventoryMetrics inventoryMetrics = new InventoryMetrics(meterRegistry);
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     private ReservationService reservationService;
 
@@ -86,6 +121,7 @@ class ReservationServiceTest {
         assertEquals(testReservation.getCustomerId(), result.getCustomerId());
         assertEquals(testReservation.getQuantity(), result.getQuantity());
         verify(cacheService).evictItemCache(testItem.getId());
+        verify(reservationExpiryWheel).schedule(testReservation);
     }
 
     @Test
@@ -105,6 +141,22 @@ class ReservationServiceTest {
         verify(reservationRepository, never()).save(any());
     }
 
+    @Test
+    void createReservation_RecordsLatencyByModeAndOutcome() {
+        when(itemRepository.findByIdWithLock(1L)).thenReturn(Optional.of(testItem), Optional.empty());
+        when(itemRepository.save(any(Item.class))).thenReturn(testItem);
+        when(reservationRepository.save(any(Reservation.class))).thenReturn(testReservation);
+
+        reservationService.createReservation(reservationRequest);
+        assertThrows(IllegalArgumentException.class, () -> reservationService.createReservation(reservationRequest));
+
+        assertEquals(1, meterRegistry.get("inventory.reservations.create")
+                .tags("mode", "locked", "outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("inventory.reservations.create")
+                .tags("mode", "locked", "outcome", "not_found").timer().count());
+        assertEquals(2, meterRegistry.get("inventory.items.lock.wait").tag("operation", "reserve").timer().count());
+    }
+
     @Test
     void createReservation_ItemInactive_ThrowsException() {
         testItem.setIsActive(false);
@@ -114,6 +166,151 @@ class ReservationServiceTest {
         verify(reservationRepository, never()).save(any());
     }
 
+    @Test
+    void createReservation_LedgerMode_ReservesInMemory() {
+        reservationProperties.setMode(ReservationProperties.Mode.LEDGER);
+        when(itemRepository.getReferenceById(1L)).thenReturn(testItem);
+        when(reservationRepository.save(any(Reservation.class))).thenReturn(testReservation);
+
+        Reservation result = reservationService.createReservation(reservationRequest);
+
+        assertEquals(testReservation.getQuantity(), result.getQuantity());
+        verify(stockLedger).reserve(1L, 2);
+        verify(itemRepository, never()).findByIdWithLock(any());
+        verify(itemRepository, never()).save(any());
+    }
+
+    @Test
+    void createReservation_LedgerModeInsufficientQuantity_ThrowsException() {
+        reservationProperties.setMode(ReservationProperties.Mode.LEDGER);
+        doThrow(new IllegalStateException("Insufficient inventory or item inactive"))
+                .when(stockLedger).reserve(1L, 2);
+
+        assertThrows(IllegalStateException.class, () -> reservationService.createReservation(reservationRequest));
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    void createReservation_ConditionalUpdateMode_Success() {
+        reservationProperties.setMode(ReservationProperties.Mode.CONDITIONAL_UPDATE);
+        when(itemRepository.reserveQuantityIfAvailable(1L, 2)).thenReturn(1);
+        when(itemRepository.getReferenceById(1L)).thenReturn(testItem);
+        when(reservationRepository.save(any(Reservation.class))).thenReturn(testReservation);
+
+        Reservation result = reservationService.createReservation(reservationRequest);
+
+        assertEquals(testReservation.getQuantity(), result.getQuantity());
+        verify(itemRepository, never()).findByIdWithLock(any());
+        verify(itemRepository, never()).save(any());
+        verify(cacheService).evictItemCache(1L);
+    }
+
+    @Test
+    void createReservation_ConditionalUpdateModeNoRowUpdated_ThrowsException() {
+        reservationProperties.setMode(ReservationProperties.Mode.CONDITIONAL_UPDATE);
+        when(itemRepository.reserveQuantityIfAvailable(1L, 2)).thenReturn(0);
+        when(itemRepository.existsById(1L)).thenReturn(true);
+
+        assertThrows(IllegalStateException.class, () -> reservationService.createReservation(reservationRequest));
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    void createReservation_ConditionalUpdateModeItemNotFound_ThrowsException() {
+        reservationProperties.setMode(ReservationProperties.Mode.CONDITIONAL_UPDATE);
+        when(itemRepository.reserveQuantityIfAvailable(1L, 2)).thenReturn(0);
+        when(itemRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(IllegalArgumentException.class, () -> reservationService.createReservation(reservationRequest));
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    void createReservation_CoalescedMode_DelegatesToCoalescer() {
+        reservationProperties.setMode(ReservationProperties.Mode.COALESCED);
+        when(reservationCoalescer.reserve(reservationRequest)).thenReturn(testReservation);
+
+        Reservation result = reservationService.createReservation(reservationRequest);
+
+        assertEquals(testReservation, result);
+        verify(itemRepository, never()).findByIdWithLock(any());
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    @Test
+    void createReservations_Success_LocksItemsOnceInIdOrder() {
+        Item otherItem = Item.builder()
+                .id(2L)
+                .name("AirPods Pro")
+                .sku("AIRPODS-PRO-2")
+                .price(new BigDecimal("249.99"))
+                .availableQuantity(10)
+                .reservedQuantity(0)
+                .isActive(true)
+                .build();
+        CartReservationRequest cart = CartReservationRequest.builder()
+                .customerId("CUST-001")
+                .lines(List.of(
+                        new CartReservationRequest.CartLine(2L, 1),
+                        new CartReservationRequest.CartLine(1L, 2),
+                        new CartReservationRequest.CartLine(2L, 3)))
+                .build();
+        when(itemRepository.findAllByIdWithLock(any())).thenReturn(List.of(testItem, otherItem));
+        when(reservationRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<Reservation> result = reservationService.createReservations(cart);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(itemRepository, times(1)).findAllByIdWithLock(ids.capture());
+        assertEquals(List.of(1L, 2L), List.copyOf(ids.getValue()));
+        assertEquals(3, result.size());
+        assertEquals(48, testItem.getAvailableQuantity());
+        assertEquals(6, otherItem.getAvailableQuantity());
+        assertEquals(4, otherItem.getReservedQuantity());
+        verify(cacheService).evictItemCache(1L);
+        verify(cacheService).evictItemCache(2L);
+    }
+
+    @Test
+    void createReservations_OneLineInsufficient_ReservesNothing() {
+        CartReservationRequest cart = CartReservationRequest.builder()
+                .customerId("CUST-001")
+                .lines(List.of(
+                        new CartReservationRequest.CartLine(1L, 2),
+                        new CartReservationRequest.CartLine(1L, 49)))
+                .build();
+        when(itemRepository.findAllByIdWithLock(any())).thenReturn(List.of(testItem));
+
+        assertThrows(IllegalStateException.class, () -> reservationService.createReservations(cart));
+        assertEquals(50, testItem.getAvailableQuantity());
+        verify(reservationRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void createReservations_ItemNotFound_ThrowsException() {
+        CartReservationRequest cart = CartReservationRequest.builder()
+                .customerId("CUST-001")
+                .lines(List.of(new CartReservationRequest.CartLine(3L, 1)))
+                .build();
+        when(itemRepository.findAllByIdWithLock(any())).thenReturn(List.of());
+
+        assertThrows(IllegalArgumentException.class, () -> reservationService.createReservations(cart));
+        verify(reservationRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void cancelReservation_LedgerMode_ReleasesInMemory() {
+        reservationProperties.setMode(ReservationProperties.Mode.LEDGER);
+        when(reservationRepository.findById(1L)).thenReturn(Optional.of(testReservation));
+
+        reservationService.cancelReservation(1L);
+
+        verify(stockLedger).release(1L, 2);
+        verify(itemRepository, never()).save(any());
+        assertEquals(Reservation.ReservationStatus.CANCELLED, testReservation.getStatus());
+    }
+
     @Test
     void cancelReservation_Success() {
         testItem.setReservedQuantity(testReservation.getQuantity());
@@ -142,45 +339,67 @@ class ReservationServiceTest {
         when(reservationRepository.findById(1L)).thenReturn(Optional.of(testReservation));
 
         assertThrows(IllegalStateException.class, () -> reservationService.cancelReservation(1L));
+        assertEquals(1, meterRegistry.get("inventory.reservations.cancel").tag("outcome", "rejected").timer().count());
+    }
+
+    @Test
+    void expireReservations_DelegatesToSweeper() {
+        when(reservationExpirySweeper.sweep()).thenReturn(3);
+
+        assertEquals(3, reservationService.expireReservations());
     }
 
     @Test
     void getReservationsByCustomer_Success() {
-        List<Reservation> reservations = List.of(testReservation);
-        when(reservationRepository.findByCustomerId("CUST-001")).thenReturn(reservations);
+        when(reservationRepository.findByCustomerPageAfter("CUST-001", 0L, PageRequest.of(0, 51)))
+                .thenReturn(List.of(ReservationDto.from(testReservation)));
 
-        List<Reservation> result = reservationService.getReservationsByCustomer("CUST-001");
+        CursorPage<ReservationDto> result = reservationService.getReservationsByCustomer("CUST-001", 0L, 50);
 
-        assertEquals(1, result.size());
-        assertEquals(testReservation.getCustomerId(), result.get(0).getCustomerId());
+        assertEquals(1, result.getItems().size());
+        assertEquals(testReservation.getCustomerId(), result.getItems().get(0).getCustomerId());
+        assertEquals(testItem.getSku(), result.getItems().get(0).getItemSku());
+        assertNull(result.getNextCursor());
     }
 
     @Test
-    void getReservationsByItem_Success() {
-        List<Reservation> reservations = List.of(testReservation);
-        when(reservationRepository.findByItemId(1L)).thenReturn(reservations);
+    void getReservationsByItem_FullPage_ReturnsCursorAfterLastRow() {
+        List<ReservationDto> rows = List.of(
+                ReservationDto.builder().id(4L).itemId(1L).build(),
+                ReservationDto.builder().id(9L).itemId(1L).build(),
+                ReservationDto.builder().id(12L).itemId(1L).build());
+        when(reservationRepository.findByItemPageAfter(1L, 3L, PageRequest.of(0, 3))).thenReturn(rows);
 
-        List<Reservation> result = reservationService.getReservationsByItem(1L);
+        CursorPage<ReservationDto> result = reservationService.getReservationsByItem(1L, 3L, 2);
 
-        assertEquals(1, result.size());
-        assertEquals(testReservation.getItem().getId(), result.get(0).getItem().getId());
+        assertEquals(List.of(4L, 9L), result.getItems().stream().map(ReservationDto::getId).toList());
+        assertEquals(9L, CursorPage.decodeCursor(result.getNextCursor()));
+    }
+
+    @Test
+    void getReservationsByCustomer_OversizedPage_Capped() {
+        reservationService.getReservationsByCustomer("CUST-001", 0L, 10_000);
+
+        verify(reservationRepository).findByCustomerPageAfter("CUST-001", 0L,
+                PageRequest.of(0, ReservationService.MAX_PAGE_SIZE + 1));
     }
 
     @Test
     void getReservation_Success() {
-        when(reservationRepository.findById(1L)).thenReturn(Optional.of(testReservation));
+        when(reservationRepository.findDtoById(1L)).thenReturn(Optional.of(ReservationDto.from(testReservation)));
 
-        Optional<Reservation> result = reservationService.getReservation(1L);
+        Optional<ReservationDto> result = reservationService.getReservation(1L);
 
         assertTrue(result.isPresent());
         assertEquals(testReservation.getId(), result.get().getId());
+        assertEquals(testItem.getId(), result.get().getItemId());
     }
 
     @Test
     void getReservation_NotFound_ReturnsEmpty() {
-        when(reservationRepository.findById(1L)).thenReturn(Optional.empty());
+        when(reservationRepository.findDtoById(1L)).thenReturn(Optional.empty());
 
-        Optional<Reservation> result = reservationService.getReservation(1L);
+        Optional<ReservationDto> result = reservationService.getReservation(1L);
 
         assertFalse(result.isPresent());
     }
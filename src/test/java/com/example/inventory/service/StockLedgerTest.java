@@ -0,0 +1,325 @@
+package com.example.inventory.service;
+
+import com.example.inventory.entity.Item;
+import com.example.inventory.entity.StockLedgerEntry;
+import com.example.inventory.repository.ItemRepository;
+import com.example.inventory.repository.StockLedgerEntryRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockLedgerTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private StockLedgerEntryRepository entryRepository;
+
+    @Mock
+    private CacheService cacheService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StockLedger stockLedger;
+
+    private Item testItem;
+
+    // Stands in for the stock_ledger_entries table
+    private final List<StockLedgerEntry> entries = new CopyOnWriteArrayList<>();
+    private final AtomicLong entryIds = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        stubEntryTable();
+        stockLedger = new StockLedger(itemRepository, entryRepository, cacheService, transactionManager);
+        LocalDateTime now = LocalDateTime.now();
+        testItem = Item.builder()
+                .id(1L)
+                .name("iPhone 15 Pro")
+                .sku("IPHONE-15-PRO-256")
+                .price(new BigDecimal("999.99"))
+                .availableQuantity(50)
+                .reservedQuantity(0)
+                .isActive(true)
+                .version(3L)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    @Test
+    void reserve_Success() {
+        stockLedger.reserve(1L, 20);
+
+        assertEquals(30, stockLedger.getAvailableQuantity(1L));
+        assertEquals(List.of(20), entries.stream().map(StockLedgerEntry::getDelta).toList());
+        verify(entryRepository, times(1)).findLedgerState(1L);
+    }
+
+    @Test
+    void reserve_InsufficientQuantity_ThrowsException() {
+
+        assertThrows(IllegalStateException.class, () -> stockLedger.reserve(1L, 51));
+        assertEquals(50, stockLedger.getAvailableQuantity(1L));
+    }
+
+    @Test
+    void reserve_ItemInactive_ThrowsException() {
+        testItem.setIsActive(false);
+        assertThrows(IllegalStateException.class, () -> stockLedger.reserve(1L, 1));
+    }
+
+    @Test
+    void reserve_ItemNotFound_ThrowsException() {
+        testItem = null;
+
+        assertThrows(IllegalArgumentException.class, () -> stockLedger.reserve(1L, 1));
+        assertFalse(stockLedger.isTracking(1L));
+    }
+
+    @Test
+    void release_InsufficientReservedQuantity_ThrowsException() {
+        stockLedger.reserve(1L, 5);
+
+        assertThrows(IllegalStateException.class, () -> stockLedger.release(1L, 6));
+
+        stockLedger.release(1L, 5);
+        assertEquals(50, stockLedger.getAvailableQuantity(1L));
+    }
+
+    @Test
+    void release_RolledBackAfterFreedUnitsWereRequested_CounterMatchesDatabase() {
+        stockLedger.reserve(1L, 10);
+
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> cancel;
+        try {
+            stockLedger.release(1L, 10);
+            cancel = TransactionSynchronizationManager.getSynchronizations();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        // The cancel has not committed, so its units cannot be handed to anyone else yet
+        assertThrows(IllegalStateException.class, () -> stockLedger.reserve(1L, 50));
+        stockLedger.reserve(1L, 40);
+
+        entries.removeIf(entry -> entry.getDelta() == -10);
+        cancel.forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(0, stockLedger.getAvailableQuantity(1L));
+        assertEquals(0L, entryRepository.findLedgerState(1L).orElseThrow().getAvailableQuantity());
+        assertEquals(50L, entryRepository.findLedgerState(1L).orElseThrow().getReservedQuantity());
+    }
+
+    @Test
+    void release_InTransaction_FreesUnitsOnCommit() {
+        stockLedger.reserve(1L, 10);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            stockLedger.release(1L, 10);
+            assertEquals(40, stockLedger.getAvailableQuantity(1L));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(50, stockLedger.getAvailableQuantity(1L));
+    }
+
+    @Test
+    void reserve_Concurrent_NeverOversells() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger accepted = new AtomicInteger();
+        for (int i = 0; i < 200; i++) {
+            executor.submit(() -> {
+                start.await();
+                try {
+                    stockLedger.reserve(1L, 1);
+                    accepted.incrementAndGet();
+                } catch (IllegalStateException ignored) {
+                    // sold out
+                }
+                return null;
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(50, accepted.get());
+        assertEquals(0, stockLedger.getAvailableQuantity(1L));
+    }
+
+    @Test
+    void flush_WritesNetDeltaOnce() {
+        stockLedger.reserve(1L, 5);
+        stockLedger.reserve(1L, 3);
+        stockLedger.release(1L, 2);
+
+        stockLedger.flush();
+        stockLedger.flush();
+
+        verify(itemRepository, times(1)).applyReservedDelta(1L, 6);
+        verify(cacheService).evictItemCache(1L);
+        assertTrue(entries.isEmpty());
+    }
+
+    @Test
+    void restart_WithUnflushedEntries_RecoversCountsAndFoldsThemOnce() {
+        stockLedger.reserve(1L, 5);
+        stockLedger.reserve(1L, 3);
+        // The process dies here: the reservations committed, their entries were never folded
+        stockLedger = new StockLedger(itemRepository, entryRepository, cacheService, transactionManager);
+
+        stockLedger.release(1L, 3);
+        assertEquals(45, stockLedger.getAvailableQuantity(1L));
+        assertThrows(IllegalStateException.class, () -> stockLedger.reserve(1L, 46));
+
+        stockLedger.flush();
+
+        verify(itemRepository, times(1)).applyReservedDelta(1L, 5);
+        assertTrue(entries.isEmpty());
+        assertEquals(45, testItem.getAvailableQuantity());
+        assertEquals(5, testItem.getReservedQuantity());
+    }
+
+    @Test
+    void flush_AfterRestart_FoldsEntriesOfItemsNotYetTracked() {
+        stockLedger.reserve(1L, 7);
+        stockLedger = new StockLedger(itemRepository, entryRepository, cacheService, transactionManager);
+
+        stockLedger.flush();
+
+        assertFalse(stockLedger.isTracking(1L));
+        assertEquals(43, testItem.getAvailableQuantity());
+        assertTrue(entries.isEmpty());
+    }
+
+    @Test
+    void reserve_EntryNotWritten_HandsReservationBack() {
+        doThrow(new IllegalStateException("database unavailable")).when(entryRepository).save(any());
+
+        assertThrows(IllegalStateException.class, () -> stockLedger.reserve(1L, 5));
+
+        assertEquals(50, stockLedger.getAvailableQuantity(1L));
+    }
+
+    @Test
+    void flush_Failure_RetriesDelta() {
+        when(itemRepository.applyReservedDelta(anyLong(), anyInt()))
+                .thenThrow(new IllegalStateException("database unavailable"))
+                .thenReturn(1);
+        stockLedger.reserve(1L, 4);
+
+        stockLedger.flush();
+        stockLedger.flush();
+
+        verify(itemRepository, times(2)).applyReservedDelta(1L, 4);
+        assertTrue(entries.isEmpty());
+    }
+
+    @Test
+    void onSupply_AppliedOnlyWhenNewerThanLoadedState() {
+        stockLedger.reserve(1L, 10);
+
+        stockLedger.onSupply(1L, 5, Item.builder().id(1L).version(3L).build());
+        assertEquals(40, stockLedger.getAvailableQuantity(1L));
+
+        stockLedger.onSupply(1L, 5, Item.builder().id(1L).version(4L).build());
+        assertEquals(45, stockLedger.getAvailableQuantity(1L));
+    }
+
+    @Test
+    void onSupply_WithCommittedVersion_AppliedOnlyWhenNewerThanLoadedState() {
+        stockLedger.reserve(1L, 10);
+
+        stockLedger.onSupply(1L, 5, 3L);
+        assertEquals(40, stockLedger.getAvailableQuantity(1L));
+
+        stockLedger.onSupply(1L, 5, 4L);
+        assertEquals(45, stockLedger.getAvailableQuantity(1L));
+    }
+
+    // Answers like the database would: the ledger state is the item row with unfolded entries applied
+    private void stubEntryTable() {
+        lenient().when(entryRepository.save(any())).thenAnswer(invocation -> {
+            StockLedgerEntry entry = invocation.getArgument(0);
+            entry.setId(entryIds.incrementAndGet());
+            entries.add(entry);
+            return entry;
+        });
+        lenient().when(entryRepository.findPendingItemIds()).thenAnswer(invocation ->
+                entries.stream().map(StockLedgerEntry::getItemId).distinct().toList());
+        lenient().when(entryRepository.findByItemId(anyLong())).thenAnswer(invocation -> entries.stream()
+                .filter(entry -> entry.getItemId().equals(invocation.getArgument(0)))
+                .toList());
+        lenient().doAnswer(invocation -> {
+            Collection<?> ids = invocation.getArgument(0);
+            entries.removeIf(entry -> ids.contains(entry.getId()));
+            return null;
+        }).when(entryRepository).deleteAllByIdInBatch(any());
+        lenient().when(itemRepository.applyReservedDelta(anyLong(), anyInt())).thenAnswer(invocation -> {
+            int delta = invocation.getArgument(1);
+            testItem.setAvailableQuantity(testItem.getAvailableQuantity() - delta);
+            testItem.setReservedQuantity(testItem.getReservedQuantity() + delta);
+            return 1;
+        });
+        lenient().when(entryRepository.findLedgerState(anyLong())).thenAnswer(invocation -> {
+            if (testItem == null) {
+                return Optional.empty();
+            }
+            long pending = entries.stream().mapToLong(StockLedgerEntry::getDelta).sum();
+            Item item = testItem;
+            return Optional.of(new StockLedgerEntryRepository.LedgerState() {
+                @Override
+                public Boolean getActive() {
+                    return item.getIsActive();
+                }
+
+                @Override
+                public Long getVersion() {
+                    return item.getVersion();
+                }
+
+                @Override
+                public Long getAvailableQuantity() {
+                    return item.getAvailableQuantity() - pending;
+                }
+
+                @Override
+                public Long getReservedQuantity() {
+                    return item.getReservedQuantity() + pending;
+                }
+            });
+        });
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.inventory.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+
+    @Test
+    void add_PastDeadline_ReturnsFalse() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 1_000);
+
+        assertFalse(wheel.add("late", 999));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_FiresOnlyAfterDeadlineHasPassed() {
+        TimingWheel<String> wheel = new TimingWheel<>(100, 8, 1_000);
+        List<String> fired = new ArrayList<>();
+        wheel.add("a", 1_250);
+
+        wheel.advance(1_250, fired::add);
+        assertTrue(fired.isEmpty());
+
+        wheel.advance(1_300, fired::add);
+        assertEquals(List.of("a"), fired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_CascadesFromHigherLevels() {
+        TimingWheel<String> wheel = new TimingWheel<>(10, 4, 0);
+        List<String> fired = new ArrayList<>();
+        // level 0 spans 40 ms, level 1 160 ms, level 2 640 ms
+        wheel.add("level0", 35);
+        wheel.add("level1", 155);
+        wheel.add("level2", 600);
+
+        wheel.advance(150, fired::add);
+        assertEquals(List.of("level0"), fired);
+
+        wheel.advance(160, fired::add);
+        assertEquals(List.of("level0", "level1"), fired);
+
+        wheel.advance(600, fired::add);
+        assertEquals(2, fired.size());
+        wheel.advance(610, fired::add);
+        assertEquals(List.of("level0", "level1", "level2"), fired);
+    }
+
+    @Test
+    void advance_RandomDeadlines_NeverEarlyAndAtMostOneTickLate() {
+        long tick = 10;
+        TimingWheel<Integer> wheel = new TimingWheel<>(tick, 16, 0);
+        Random random = new Random(42);
+        Map<Integer, Long> deadlines = new HashMap<>();
+        for (int i = 0; i < 5_000; i++) {
+            long deadline = random.nextInt(200_000);
+            deadlines.put(i, deadline);
+            assertTrue(wheel.add(i, deadline));
+        }
+
+        Map<Integer, Long> firedAt = new HashMap<>();
+        for (long now = 0; now <= 200_000 + tick; now += 7) {
+            long time = now;
+            wheel.advance(time, value -> firedAt.put(value, time));
+        }
+
+        assertEquals(deadlines.size(), firedAt.size());
+        deadlines.forEach((value, deadline) -> {
+            long fired = firedAt.get(value);
+            assertTrue(fired > deadline, "fired early: " + value);
+            assertTrue(fired <= deadline + tick + 7, "fired late: " + value);
+        });
+    }
+}